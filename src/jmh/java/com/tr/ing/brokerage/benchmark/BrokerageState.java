@@ -0,0 +1,104 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.IngTrBrokerageSystemApplication;
+import com.tr.ing.brokerage.dto.AssetDTO;
+import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.service.AssetService;
+import com.tr.ing.brokerage.service.CustomerService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Boots the application on a random port against a private embedded H2 database and
+ * journal directory, and seeds one customer whose TRY and AKBNK balances outlast any run.
+ * Benchmarks call the services directly, bypassing HTTP and the order sequencer.
+ */
+@State(Scope.Benchmark)
+public class BrokerageState {
+
+    static final String ASSET = "AKBNK";
+
+    ConfigurableApplicationContext context;
+    Long customerId;
+
+    @Setup(Level.Trial)
+    public void boot() throws IOException {
+        Path journal = Files.createTempDirectory("brokerage-jmh-journal");
+        context = new SpringApplicationBuilder(IngTrBrokerageSystemApplication.class)
+                .run(arguments(journal).toArray(String[]::new));
+
+        // auditing needs a principal on whichever thread JMH runs the benchmark on
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "benchmark", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        CustomerDTO customer = bean(CustomerService.class).createCustomer(
+                CustomerDTO.builder().customerId("JMH-1").name("Benchmark").build());
+        customerId = customer.getId();
+
+        BigDecimal plenty = new BigDecimal("1000000000000");
+        AssetService assetService = bean(AssetService.class);
+        assetService.createAsset(AssetDTO.builder().customerId(customerId).assetName("TRY")
+                .size(plenty).usableSize(plenty).build());
+        assetService.createAsset(AssetDTO.builder().customerId(customerId).assetName(ASSET)
+                .size(plenty).usableSize(plenty).build());
+    }
+
+    /**
+     * Command line of the booted application; logging is kept at WARN so it stays out of the numbers.
+     * Schema validation is off because the entity scan also picks up the benchmark-only entities,
+     * and the journal skips fsync so the disk does not dominate the hot path being measured.
+     */
+    List<String> arguments(Path journal) {
+        return List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.tr.ing=WARN",
+                "--brokerage.journal.directory=" + journal,
+                "--brokerage.journal.fsync=false");
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * A one-lot BUY far below any resting SELL, so it reserves 1 TRY and rests in the book
+     */
+    OrderDTO restingBuy() {
+        return OrderDTO.builder()
+                .customerId(customerId)
+                .assetName(ASSET)
+                .side(Side.BUY)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.IngTrBrokerageSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test of the HTTP stack with platform-thread and virtual-thread request
+ * handling. For each mode the application is booted on a random port, seeded over HTTP, and
+ * then hit by concurrent clients that each alternate a TRY balance read (AssetController)
+ * with a resting one-lot BUY (OrderController). Latency percentiles are reported per endpoint.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@load-test -Dload.args="--clients 10000 --requests 5"
+ * </pre>
+ * Clients run on virtual threads in the same JVM, so absolute numbers include client overhead;
+ * compare the modes against each other.
+ */
+public final class ConcurrencyLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    private final int clients;
+    private final int requests;
+    private final int customers;
+
+    private HttpClient http;
+    private String baseUrl;
+    private String token;
+
+    private ConcurrencyLoadTest(int clients, int requests, int customers) {
+        this.clients = clients;
+        this.requests = requests;
+        this.customers = customers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // booting from the main thread would otherwise let devtools restart this whole class
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int clients = intArg(args, "--clients", 10_000);
+        int requests = intArg(args, "--requests", 5);
+        int customers = intArg(args, "--customers", 100);
+        String modes = stringArg(args, "--modes", "platform,virtual");
+
+        ConcurrencyLoadTest test = new ConcurrencyLoadTest(clients, requests, customers);
+        for (String mode : modes.split(",")) {
+            test.run(mode.trim());
+        }
+        System.exit(0);
+    }
+
+    private void run(String mode) throws Exception {
+        ConfigurableApplicationContext context = boot(mode);
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            http = HttpClient.newBuilder()
+                    .executor(clientThreads)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+            long[] customerIds = seed();
+
+            Recorder balances = new Recorder(clients * requests);
+            Recorder orders = new Recorder(clients * requests);
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(clients);
+
+            for (int c = 0; c < clients; c++) {
+                long customerId = customerIds[c % customerIds.length];
+                clientThreads.submit(() -> {
+                    try {
+                        start.await();
+                        for (int r = 0; r < requests; r++) {
+                            balances.record(() -> send(get("/customers/" + customerId + "/assets/try-balance")));
+                            orders.record(() -> send(post("/orders", "{\"customerId\":" + customerId
+                                    + ",\"assetName\":\"AKBNK\",\"side\":\"BUY\",\"size\":1,\"price\":1}")));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            System.out.printf("%n== %s request threads, %d clients x %d request pairs, %.1f s ==%n",
+                    mode, clients, requests, seconds);
+            System.out.printf("%-28s %8s %8s %10s %10s %10s %10s%n",
+                    "endpoint", "ok", "failed", "p50 ms", "p99 ms", "max ms", "req/s");
+            balances.print("GET  try-balance", seconds);
+            orders.print("POST orders", seconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext boot(String mode) throws IOException {
+        return new SpringApplicationBuilder(IngTrBrokerageSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--server.tomcat.threads.max=200",
+                "--server.tomcat.max-connections=" + (clients + 1024),
+                "--server.tomcat.accept-count=" + clients,
+                "--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.tr.ing=WARN",
+                "--brokerage.sequencer.queue-capacity=" + clients * 2,
+                "--brokerage.rate-limit.enabled=false",
+                "--brokerage.journal.directory=" + Files.createTempDirectory("brokerage-load-journal"),
+                "--brokerage.journal.fsync=false");
+    }
+
+    /**
+     * Registers and logs in an admin, then creates the customers with TRY to spend
+     */
+    private long[] seed() throws Exception {
+        send(post("/auth/register", "{\"username\":\"load\",\"password\":\"load-test\",\"roles\":[\"ROLE_ADMIN\"]}"));
+        token = match(TOKEN, send(post("/auth/login", "{\"username\":\"load\",\"password\":\"load-test\"}")));
+
+        long[] ids = new long[customers];
+        for (int i = 0; i < customers; i++) {
+            ids[i] = Long.parseLong(match(ID, send(post("/customers",
+                    "{\"customerId\":\"LOAD-" + i + "\",\"name\":\"Load " + i + "\"}"))));
+            send(post("/customers/" + ids[i] + "/assets",
+                    "{\"assetName\":\"TRY\",\"size\":1000000000,\"usableSize\":1000000000}"));
+        }
+        return ids;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " -> " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String match(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws IOException, InterruptedException;
+    }
+
+    private static final class Recorder {
+
+        private final long[] latencies;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+        private Recorder(int capacity) {
+            latencies = new long[capacity];
+        }
+
+        void record(Call call) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                call.run();
+                latencies[count.getAndIncrement()] = System.nanoTime() - start;
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                failures.computeIfAbsent(e.getMessage() == null ? e.getClass().getName() : e.getMessage().replaceAll(".* -> ", "HTTP "),
+                        reason -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+
+        void print(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count.get());
+            Arrays.sort(sorted);
+            System.out.printf("%-28s %8d %8d %10.1f %10.1f %10.1f %10.0f%n",
+                    endpoint, sorted.length, failed.get(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+                    sorted.length / seconds);
+            failures.forEach((reason, times) -> System.out.printf("    %6d x %s%n", times.get(), reason));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
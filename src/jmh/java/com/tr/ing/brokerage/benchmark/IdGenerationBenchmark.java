@@ -0,0 +1,118 @@
+package com.tr.ing.brokerage.benchmark;
+
+import jakarta.persistence.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order insert throughput with IDENTITY ids, which force one round trip per row, against
+ * pooled-lo sequence ids, which are allocated in memory and let Hibernate batch the inserts.
+ * Runs on plain H2 and on H2 in PostgreSQL compatibility mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdGenerationBenchmark {
+
+    private static final int ORDERS_PER_TRANSACTION = 500;
+
+    @Param({"IDENTITY", "POOLED_LO"})
+    public String strategy;
+
+    @Param({"H2", "PostgreSQL"})
+    public String mode;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:ids_" + strategy + "_" + mode + ";DB_CLOSE_DELAY=-1"
+                + ("PostgreSQL".equals(mode) ? ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE" : "");
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass("IDENTITY".equals(strategy) ? IdentityOrder.class : SequenceOrder.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_TRANSACTION)
+    public void insertOrders() {
+        boolean identity = "IDENTITY".equals(strategy);
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ORDERS_PER_TRANSACTION; i++) {
+                BenchmarkOrder order = identity ? new IdentityOrder() : new SequenceOrder();
+                order.customerId = (long) (i % 16);
+                order.assetName = "AKBNK";
+                order.side = i % 2 == 0 ? "BUY" : "SELL";
+                order.size = BigDecimal.TEN;
+                order.price = BigDecimal.valueOf(50 + i % 5);
+                order.status = "PENDING";
+                order.createDate = LocalDateTime.now();
+                session.persist(order);
+            }
+        });
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchmarkOrder {
+
+        @Column(name = "customer_id", nullable = false)
+        Long customerId;
+
+        @Column(name = "asset_name", nullable = false)
+        String assetName;
+
+        @Column(nullable = false)
+        String side;
+
+        @Column(precision = 19, scale = 4, nullable = false)
+        BigDecimal size;
+
+        @Column(precision = 19, scale = 4, nullable = false)
+        BigDecimal price;
+
+        @Column(nullable = false)
+        String status;
+
+        @Column(name = "create_date", nullable = false)
+        LocalDateTime createDate;
+    }
+
+    @Entity
+    @Table(name = "identity_orders")
+    public static class IdentityOrder extends BenchmarkOrder {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "sequence_orders")
+    public static class SequenceOrder extends BenchmarkOrder {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE)
+        Long id;
+    }
+}
@@ -0,0 +1,89 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.entity.Role;
+import com.tr.ing.brokerage.entity.User;
+import com.tr.ing.brokerage.enums.RoleUser;
+import com.tr.ing.brokerage.util.JwtTokenProvider;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-request token work done by {@code JwtAuthFilter}. Repeated requests with the same
+ * token are served from the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider uncachedRotatingProvider;
+    private String token;
+    private String uncachedToken;
+    private String uncachedRotatingToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(List.of(), "", 86_400_000L, 10_000, Duration.ofMinutes(5));
+        User user = User.builder()
+                .username("benchmark")
+                .roles(Set.of(Role.builder().roleUser(RoleUser.ROLE_ADMIN).build()))
+                .build();
+        Authentication login = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = jwtTokenProvider.generateToken(login);
+
+        uncachedProvider = new JwtTokenProvider(List.of(), "", 86_400_000L, 10_000, Duration.ZERO);
+        uncachedToken = uncachedProvider.generateToken(login);
+
+        List<String> keys = IntStream.range(0, 16)
+                .mapToObj(i -> "k" + i + ":" + Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()))
+                .toList();
+        uncachedRotatingProvider = new JwtTokenProvider(keys, "k15", 86_400_000L, 10_000, Duration.ZERO);
+        uncachedRotatingToken = uncachedRotatingProvider.generateToken(login);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return jwtTokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return jwtTokenProvider.authenticate(token).orElse(null);
+    }
+
+    /**
+     * Cold path of a token not seen before: a zero cache TTL forces the full parse and signature check
+     */
+    @Benchmark
+    public Authentication authenticateUncached() {
+        return uncachedProvider.authenticate(uncachedToken).orElse(null);
+    }
+
+    /**
+     * Same cold path with 16 active keys; the key is found by its {@code kid}, not by trying each
+     */
+    @Benchmark
+    public Authentication authenticateUncachedSixteenKeys() {
+        return uncachedRotatingProvider.authenticate(uncachedRotatingToken).orElse(null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation under the development logging setup (local profile: TRACE application logs,
+ * DEBUG Spring logs and SQL echo on a synchronous console) against the prod profile (INFO,
+ * one audit line per order, async appenders). Console output goes to a null stream, so the
+ * difference is the cost of producing the log events. Compare gc.alloc.rate.norm under
+ * {@code -prof gc}: mvn -Pjmh test-compile exec:exec -Djmh.args="LoggingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingBenchmark {
+
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp(ProfiledState state) {
+        orderService = state.bean(OrderService.class);
+    }
+
+    @Benchmark
+    public OrderDTO createOrder(ProfiledState state) {
+        return orderService.createOrder(state.restingBuy());
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProfiledState extends BrokerageState {
+
+        @Param({"local", "prod"})
+        public String profile;
+
+        /**
+         * Leaves the log levels to the profile and sends console output to a null stream
+         */
+        @Override
+        List<String> arguments(Path journal) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            return List.of(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                    "--spring.profiles.active=" + profile,
+                    "--brokerage.journal.directory=" + journal);
+        }
+    }
+}
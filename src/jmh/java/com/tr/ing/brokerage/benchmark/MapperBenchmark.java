@@ -0,0 +1,93 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.mapper.AssetMapperImpl;
+import com.tr.ing.brokerage.mapper.CustomerMapperImpl;
+import com.tr.ing.brokerage.mapper.OrderMapperImpl;
+import com.tr.ing.brokerage.util.BaseModelMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one Order/OrderDTO conversion through the generated mappers behind
+ * {@link BaseModelMapper} against the reflective ModelMapper (STRICT) it replaced.
+ * Run with {@code -prof gc} to compare allocation per conversion as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private BaseModelMapper generated;
+    private ModelMapper reflective;
+
+    private Order order;
+    private OrderDTO orderDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                BaseModelMapper.class, OrderMapperImpl.class, AssetMapperImpl.class, CustomerMapperImpl.class);
+        generated = context.getBean(BaseModelMapper.class);
+
+        reflective = new ModelMapper();
+        reflective.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setCustomerId("CUST001");
+        customer.setName("Benchmark");
+
+        order = Order.builder()
+                .customer(customer)
+                .assetName("AKBNK")
+                .side(Side.BUY)
+                .size(BigDecimal.TEN)
+                .price(BigDecimal.valueOf(52.75))
+                .status(Status.PENDING)
+                .createDate(LocalDateTime.now())
+                .build();
+        order.setId(42L);
+
+        orderDTO = generated.convertToDto(order, OrderDTO.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO toDtoGenerated() {
+        return generated.convertToDto(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO toDtoModelMapper() {
+        return reflective.map(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public Order toEntityGenerated() {
+        return generated.convertToEntity(orderDTO, Order.class);
+    }
+
+    @Benchmark
+    public Order toEntityModelMapper() {
+        return reflective.map(orderDTO, Order.class);
+    }
+}
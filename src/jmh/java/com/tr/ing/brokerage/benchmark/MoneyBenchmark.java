@@ -0,0 +1,91 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance math of one order as done on the order path: reserve price x size against the
+ * usable balance, settle the buy side of a fill at an improved price (spend the cost,
+ * release the improvement) and credit the sell side's proceeds back. Compares the
+ * BigDecimal arithmetic it used to run on with the fixed-point {@link Money} it runs on
+ * now. Run with {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoneyBenchmark {
+
+    private static final int ORDERS = 64;
+
+    private final BigDecimal[] decimalPrices = new BigDecimal[ORDERS];
+    private final BigDecimal[] decimalSizes = new BigDecimal[ORDERS];
+    private final Money[] moneyPrices = new Money[ORDERS];
+    private final Money[] moneySizes = new Money[ORDERS];
+
+    private BigDecimal decimalUsable;
+    private BigDecimal decimalSize;
+    private long usable;
+    private long size;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            decimalPrices[i] = new BigDecimal("52.75").add(BigDecimal.valueOf(i, 2));
+            decimalSizes[i] = BigDecimal.valueOf(10 + i % 7);
+            moneyPrices[i] = Money.of(decimalPrices[i]);
+            moneySizes[i] = Money.of(decimalSizes[i]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        decimalUsable = new BigDecimal("1000000000.0000");
+        decimalSize = decimalUsable;
+        usable = Money.of(decimalUsable).units();
+        size = usable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public BigDecimal bigDecimal() {
+        for (int i = 0; i < ORDERS; i++) {
+            BigDecimal reserved = decimalPrices[i].multiply(decimalSizes[i]);
+            if (decimalUsable.compareTo(reserved) < 0) {
+                throw new IllegalStateException();
+            }
+            decimalUsable = decimalUsable.subtract(reserved);
+
+            BigDecimal cost = decimalPrices[i].subtract(BigDecimal.ONE).multiply(decimalSizes[i]);
+            decimalSize = decimalSize.add(cost.negate());
+            decimalUsable = decimalUsable.add(reserved.subtract(cost));
+            decimalSize = decimalSize.add(cost);
+            decimalUsable = decimalUsable.add(cost);
+        }
+        return decimalUsable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long money() {
+        for (int i = 0; i < ORDERS; i++) {
+            Money reserved = moneyPrices[i].times(moneySizes[i]);
+            if (usable < reserved.units()) {
+                throw new IllegalStateException();
+            }
+            usable -= reserved.units();
+
+            Money cost = moneyPrices[i].minus(Money.of(1)).times(moneySizes[i]);
+            size = Math.addExact(size, cost.negate().units());
+            usable = Math.addExact(usable, reserved.minus(cost).units());
+            size = Math.addExact(size, cost.units());
+            usable = Math.addExact(usable, cost.units());
+        }
+        return usable;
+    }
+}
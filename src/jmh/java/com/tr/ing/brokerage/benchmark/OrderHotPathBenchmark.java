@@ -0,0 +1,81 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order hot path on the booted application and embedded H2: order creation, balance
+ * reservation alone, and cancellation. Run with {@code -prof gc} for allocation per op.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderHotPathBenchmark {
+
+    static final int CANCEL_BATCH = 2000;
+
+    private OrderService orderService;
+    private AssetValidationHelper assetValidationHelper;
+    private OrderDTO reservation;
+
+    @Setup(Level.Trial)
+    public void setUp(BrokerageState state) {
+        orderService = state.bean(OrderService.class);
+        assetValidationHelper = state.bean(AssetValidationHelper.class);
+        reservation = state.restingBuy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public OrderDTO createOrder(BrokerageState state) {
+        return orderService.createOrder(state.restingBuy());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void processOrder() {
+        assetValidationHelper.processOrder(reservation);
+    }
+
+    /**
+     * Each iteration cancels exactly the batch placed before it; the score is time per cancel
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(CANCEL_BATCH)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void cancelOrder(PendingOrders orders) {
+        while (!orders.ids.isEmpty()) {
+            orderService.cancelOrder(orders.ids.pop());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PendingOrders {
+
+        final Deque<Long> ids = new ArrayDeque<>();
+
+        /**
+         * Places the pending orders that one measured cancel batch consumes
+         */
+        @Setup(Level.Iteration)
+        public void place(BrokerageState state) {
+            OrderService orderService = state.bean(OrderService.class);
+            ids.clear();
+            for (int i = 0; i < CANCEL_BATCH; i++) {
+                ids.push(orderService.createOrder(state.restingBuy()).getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tr.ing.brokerage.benchmark;
+
+import com.tr.ing.brokerage.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request check done by {@code RateLimitFilter}, on four threads. The limits are set high
+ * enough that every request is admitted, so this measures the check itself: spread over many
+ * principals, and with every thread on one principal's bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RateLimiterBenchmark {
+
+    private static final int PRINCIPALS = 1024;
+
+    private final String[] principals = new String[PRINCIPALS];
+    private RateLimiter rateLimiter;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new RateLimiter(true, 1e9, 1e9, 1e9, 1e9, Duration.ofSeconds(1), Duration.ofMinutes(10), 100_000);
+        for (int i = 0; i < PRINCIPALS; i++) {
+            principals[i] = "customer-" + i;
+        }
+    }
+
+    @Benchmark
+    public long manyPrincipals(Cursor cursor) {
+        String principal = principals[cursor.next++ & (PRINCIPALS - 1)];
+        return rateLimiter.tryAcquire(principal, RateLimiter.Group.ORDERS, false);
+    }
+
+    @Benchmark
+    public long onePrincipal() {
+        return rateLimiter.tryAcquire(principals[0], RateLimiter.Group.ORDERS, false);
+    }
+}
@@ -2,10 +2,12 @@ package com.tr.ing.brokerage;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication
 @EnableTransactionManagement(proxyTargetClass = true)
+@EnableScheduling
 public class IngTrBrokerageSystemApplication {
 
     public static void main(String[] args) {
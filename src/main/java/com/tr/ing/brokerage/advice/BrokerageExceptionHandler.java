@@ -1,7 +1,10 @@
 package com.tr.ing.brokerage.advice;
 
 import com.tr.ing.brokerage.exception.*;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -17,57 +20,132 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 @RestController
 @Slf4j
+@RequiredArgsConstructor
 public class BrokerageExceptionHandler {
 
+    private final BrokerageMetrics metrics;
+
     @ExceptionHandler(OrderNotFoundException.class)
     public final ResponseEntity<Object> handleOrderNotFoundException(OrderNotFoundException ex, WebRequest request) {
-        log.debug("Order not found. Message: {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Order not found", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(OrderNotPendingException.class)
     public final ResponseEntity<Object> handleOrderNotPendingException(OrderNotPendingException ex, WebRequest request) {
-        log.debug("Order cannot be modified --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Order cannot be modified", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(AssetNotFoundException.class)
     public final ResponseEntity<Object> handleAssetNotFoundException(AssetNotFoundException ex, WebRequest request) {
-        log.debug("Asset not found --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Asset not found", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(InsufficientAssetException.class)
     public final ResponseEntity<Object> handleInsufficientAssetException(InsufficientAssetException ex, WebRequest request) {
-        log.debug("Insufficient asset --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Insufficient asset", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(CustomerNotFoundException.class)
     public final ResponseEntity<Object> handleCustomerNotFoundException(CustomerNotFoundException ex, WebRequest request) {
-        log.debug("Customer not found --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Customer not found", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(UnauthorizedAccessException.class)
     public final ResponseEntity<Object> handleUnauthorizedAccessException(UnauthorizedAccessException ex, WebRequest request) {
-        log.debug("Unauthorized access --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Unauthorized access", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
     public final ResponseEntity<Object> handleInvalidCredentialsException(InvalidCredentialsException ex, WebRequest request) {
-        log.debug("Invalid credentials --> {} | Request details: {} ", ex.getMessage(), request);
+        logRejection("Invalid credentials", ex.getMessage(), request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(OrderQueueFullException.class)
+    public final ResponseEntity<Object> handleOrderQueueFullException(OrderQueueFullException ex, WebRequest request) {
+        logRejection("Order intake rejected", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(LoginCapacityExceededException.class)
+    public final ResponseEntity<Object> handleLoginCapacityExceededException(LoginCapacityExceededException ex, WebRequest request) {
+        logRejection("Login rejected", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(InvalidOrderBatchException.class)
+    public final ResponseEntity<Object> handleInvalidOrderBatchException(InvalidOrderBatchException ex, WebRequest request) {
+        logRejection("Invalid order batch", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidOrderFilterException.class)
+    public final ResponseEntity<Object> handleInvalidOrderFilterException(InvalidOrderFilterException ex, WebRequest request) {
+        logRejection("Invalid order filter", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidOrderException.class)
+    public final ResponseEntity<Object> handleInvalidOrderException(InvalidOrderException ex, WebRequest request) {
+        logRejection("Invalid order", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidClientOrderIdException.class)
+    public final ResponseEntity<Object> handleInvalidClientOrderIdException(InvalidClientOrderIdException ex, WebRequest request) {
+        logRejection("Invalid client order id", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InstrumentNotTradableException.class)
+    public final ResponseEntity<Object> handleInstrumentNotTradableException(InstrumentNotTradableException ex, WebRequest request) {
+        logRejection("Instrument not tradable", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidOrderIncrementException.class)
+    public final ResponseEntity<Object> handleInvalidOrderIncrementException(InvalidOrderIncrementException ex, WebRequest request) {
+        logRejection("Invalid order increment", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public final ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex, WebRequest request) {
+        logRejection("Invalid cursor", ex.getMessage(), request);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), ex.getMessage());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public final ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        logRejection("Concurrent modification", ex.getMessage(), request);
+        metrics.optimisticLockConflict(ex, "rejected");
+        ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                "The resource was modified concurrently, please retry");
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public final ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request) {
         List<String> errors = ex.getBindingResult()
@@ -76,8 +154,17 @@ public class BrokerageExceptionHandler {
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.toList());
 
-        log.debug("Validation error --> {} | Request details: {} ", errors, request);
+        logRejection("Validation error", errors, request);
         ExceptionResponse exceptionResponse = new ExceptionResponse(LocalDateTime.now(), "Validation failed: " + errors);
         return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
     }
+
+    /**
+     * Logs the request URI only, not the client and session details of the whole request
+     */
+    private static void logRejection(String reason, Object detail, WebRequest request) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} --> {} | Request: {}", reason, detail, request.getDescription(false));
+        }
+    }
 }
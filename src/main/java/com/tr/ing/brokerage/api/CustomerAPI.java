@@ -1,6 +1,7 @@
 package com.tr.ing.brokerage.api;
 
 import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,6 +33,9 @@ public interface CustomerAPI {
             @PathVariable Long id,
             @RequestBody CustomerDTO customerDTO);
 
+    @Operation(method = "GET", summary = "Get all assets of a customer with reserved amounts")
+    ResponseEntity<PortfolioDTO> getPortfolio(@PathVariable Long customerId);
+
     @Operation(method = "DELETE", summary = "Delete customer")
     ResponseEntity<Void> deleteCustomer(@PathVariable Long id);
 }
@@ -1,6 +1,10 @@
 package com.tr.ing.brokerage.api;
 
+import com.tr.ing.brokerage.dto.OrderCancelResultDTO;
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderPageDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
+import com.tr.ing.brokerage.enums.Side;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -8,10 +12,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.tr.ing.brokerage.constant.AppConstants.DEFAULT_ORDER_PAGE_SIZE;
+
 @Tag(name = "Order", description = "API for managing Stock Orders")
 @SecurityRequirement(name = "access_token")
 public interface OrderAPI {
@@ -24,12 +31,19 @@ public interface OrderAPI {
     })
     ResponseEntity<OrderDTO> createOrder(@RequestBody OrderDTO orderDTO);
 
+    @Operation(method = "POST", summary = "Create a batch of orders", operationId = "createOrders")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-order results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    ResponseEntity<List<OrderResultDTO>> createOrders(@RequestBody List<OrderDTO> orderDTOs);
+
     @Operation(method = "GET", summary = "Get orders by customer", operationId = "getOrdersByCustomer")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successful operation"),
             @ApiResponse(responseCode = "404", description = "Customer not found")
     })
-    ResponseEntity<List<OrderDTO>> getOrdersByCustomer(@RequestParam Long customerId);
+    ResponseEntity<List<OrderDTO>> getOrdersByCustomer(@PathVariable Long customerId);
 
     @Operation(method = "GET", summary = "Get orders by customer and date range", operationId = "getOrdersByCustomerAndDateRange")
     @ApiResponses({
@@ -37,11 +51,34 @@ public interface OrderAPI {
             @ApiResponse(responseCode = "404", description = "Customer not found")
     })
     ResponseEntity<List<OrderDTO>> getOrdersByCustomerAndDateRange(
-            @RequestParam Long customerId,
+            @PathVariable Long customerId,
             @RequestParam LocalDateTime startDate,
             @RequestParam LocalDateTime endDate
     );
 
+    @Operation(method = "GET", summary = "Get one page of a customer's orders, newest first", operationId = "getOrderPage")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successful operation"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    ResponseEntity<OrderPageDTO> getOrderPage(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_ORDER_PAGE_SIZE) int size,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate
+    );
+
+    @Operation(method = "GET", summary = "Stream a customer's orders as NDJSON, newest first", operationId = "streamOrders")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One order per line")
+    })
+    ResponseEntity<StreamingResponseBody> streamOrders(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate
+    );
+
     @Operation(method = "POST", summary = "Cancel an order", operationId = "cancelOrder")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order cancelled"),
@@ -49,4 +86,16 @@ public interface OrderAPI {
             @ApiResponse(responseCode = "404", description = "Order not found")
     })
     ResponseEntity<Void> cancelOrder(@RequestParam Long orderId);
+
+    @Operation(method = "POST", summary = "Cancel all pending orders of a customer and/or an asset", operationId = "cancelOrders")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Number of orders cancelled"),
+            @ApiResponse(responseCode = "400", description = "Neither a customer nor an asset given"),
+            @ApiResponse(responseCode = "409", description = "An order changed concurrently, nothing was cancelled")
+    })
+    ResponseEntity<OrderCancelResultDTO> cancelOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String assetName,
+            @RequestParam(required = false) Side side
+    );
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.tr.ing.brokerage.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "Stream", description = "Server-sent events for order and balance updates")
+@SecurityRequirement(name = "access_token")
+public interface StreamAPI {
+
+    @Operation(method = "GET", summary = "Stream order status and balance changes of a customer",
+            description = "Starts with one balance event per asset, then sends order and balance events as they happen",
+            operationId = "streamCustomerEvents")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    SseEmitter streamCustomerEvents(@PathVariable Long customerId);
+}
@@ -0,0 +1,32 @@
+package com.tr.ing.brokerage.audit;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.stream.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes one key=value line per committed order transition to the
+ * {@code com.tr.ing.brokerage.audit} logger, in place of the per-step INFO lines the
+ * order path used to write.
+ */
+@Component
+public class OrderAuditLog {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("com.tr.ing.brokerage.audit");
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!AUDIT.isInfoEnabled()) {
+            return;
+        }
+
+        OrderDTO order = event.order();
+        AUDIT.info("order id={} customer={} asset={} side={} size={} price={} filled={} status={}",
+                order.getId(), order.getCustomerId(), order.getAssetName(), order.getSide(),
+                order.getSize(), order.getPrice(), order.getFilledSize(), order.getStatus());
+    }
+}
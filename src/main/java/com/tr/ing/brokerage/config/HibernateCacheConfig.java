@@ -0,0 +1,72 @@
+package com.tr.ing.brokerage.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache regions, created up front on a Caffeine JCache manager that is handed to
+ * Hibernate. Every region is bounded; with {@code missing_cache_strategy=fail} a region that is
+ * not declared here stops the application from starting instead of growing without limit.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class HibernateCacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String CUSTOMER_NATURAL_IDS = "customer-natural-ids";
+    public static final String ROLES = "roles";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${brokerage.cache.customers.max-size:10000}") long customersMaxSize,
+                                              @Value("${brokerage.cache.customers.ttl:PT30M}") Duration customersTtl,
+                                              @Value("${brokerage.cache.roles.max-size:16}") long rolesMaxSize,
+                                              @Value("${brokerage.cache.queries.max-size:1000}") long queriesMaxSize,
+                                              @Value("${brokerage.cache.queries.ttl:PT30M}") Duration queriesTtl) {
+        // A manager of its own rather than the provider default, which every context in the JVM shares
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("brokerage-hibernate-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        createRegion(cacheManager, CUSTOMERS, customersMaxSize, customersTtl);
+        createRegion(cacheManager, CUSTOMER_NATURAL_IDS, customersMaxSize, customersTtl);
+        createRegion(cacheManager, ROLES, rolesMaxSize, null);
+        createRegion(cacheManager, QUERY_RESULTS, queriesMaxSize, queriesTtl);
+        // Must outlive every cached query result it guards, so it is neither bounded nor expired
+        createRegion(cacheManager, UPDATE_TIMESTAMPS, null, null);
+
+        log.info("Second-level cache regions: customers {} / {}, roles {}, queries {} / {}",
+                customersMaxSize, customersTtl, rolesMaxSize, queriesMaxSize, queriesTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Hibernate caches disassembled state, so entries are kept by reference instead of copied on every access
+     */
+    private static void createRegion(CacheManager cacheManager, String name, Long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(maxSize == null ? OptionalLong.empty() : OptionalLong.of(maxSize))
+                .setExpireAfterWrite(ttl == null ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        cacheManager.createCache(name, configuration);
+    }
+}
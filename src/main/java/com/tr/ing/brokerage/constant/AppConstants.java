@@ -7,4 +7,10 @@ public class AppConstants {
 
     public static final String API_BASE_PATH = "api/v1";
 
+    public static final int DEFAULT_ORDER_PAGE_SIZE = 100;
+
+    public static final int MAX_ORDER_PAGE_SIZE = 1000;
+
+    public static final int MAX_CLIENT_ORDER_ID_LENGTH = 64;
+
 }
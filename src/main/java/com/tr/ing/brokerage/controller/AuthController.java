@@ -1,29 +1,20 @@
 package com.tr.ing.brokerage.controller;
 
-import com.tr.ing.brokerage.entity.User;
-import com.tr.ing.brokerage.repository.RoleRepository;
-import com.tr.ing.brokerage.repository.UserRepository;
 import com.tr.ing.brokerage.request.LoginRequest;
 import com.tr.ing.brokerage.request.RegisterRequest;
 import com.tr.ing.brokerage.response.JwtResponse;
 import com.tr.ing.brokerage.service.AuthService;
-import com.tr.ing.brokerage.util.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
 
@@ -33,33 +24,12 @@ import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
 @Tag(name = "Authentication", description = "Authentication endpoints")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
-    private final JwtTokenProvider jwtTokenProvider;
     private final AuthService authService;
 
     @Operation(summary = "Authenticate user and get JWT token")
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        User user = (User) authentication.getPrincipal();
-
-        String jwt = jwtTokenProvider.generateToken(authentication);
-
-        return ResponseEntity.ok(new JwtResponse(
-                jwt,
-                user.getId(),
-                user.getUsername(),
-                user.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.toList())
-        ));
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @Operation(summary = "Register new user (Admin only)")
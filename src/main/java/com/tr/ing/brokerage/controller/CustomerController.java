@@ -2,6 +2,8 @@ package com.tr.ing.brokerage.controller;
 
 import com.tr.ing.brokerage.api.CustomerAPI;
 import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
+import com.tr.ing.brokerage.service.AssetService;
 import com.tr.ing.brokerage.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,7 @@ import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
 public class CustomerController implements CustomerAPI {
 
     private final CustomerService customerService;
+    private final AssetService assetService;
 
     @Override
     @PostMapping
@@ -65,6 +68,14 @@ public class CustomerController implements CustomerAPI {
         return ResponseEntity.ok(customerService.updateCustomer(id, customerDTO));
     }
 
+    @Override
+    @GetMapping("/{customerId}/portfolio")
+    @PreAuthorize("(hasRole('USER') and #customerId == authentication.principal.id) or hasRole('ADMIN')")
+    public ResponseEntity<PortfolioDTO> getPortfolio(@PathVariable final Long customerId) {
+        log.debug("Fetching portfolio for customer ID: {}", customerId);
+        return ResponseEntity.ok(assetService.getPortfolio(customerId));
+    }
+
     @Override
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
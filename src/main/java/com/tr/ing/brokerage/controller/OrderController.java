@@ -1,19 +1,31 @@
 package com.tr.ing.brokerage.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.tr.ing.brokerage.api.OrderAPI;
+import com.tr.ing.brokerage.dto.OrderCancelResultDTO;
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderPageDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.service.OrderIntakeService;
 import com.tr.ing.brokerage.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
+import static com.tr.ing.brokerage.constant.AppConstants.DEFAULT_ORDER_PAGE_SIZE;
 
 @Slf4j
 @RestController
@@ -22,20 +34,35 @@ import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
 public class OrderController implements OrderAPI {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final ObjectMapper objectMapper;
 
     @Override
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<OrderDTO> createOrder(@RequestBody OrderDTO orderDTO) {
         log.debug("Attempting to create new order for customer: {}", orderDTO.getCustomerId());
-        OrderDTO createdOrder = orderService.createOrder(orderDTO);
-        log.info("Order created successfully with ID: {}", createdOrder.getId());
+        OrderDTO createdOrder = orderIntakeService.submitOrder(orderDTO);
+        log.debug("Order created successfully with ID: {}", createdOrder.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    @Override
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OrderResultDTO>> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+        log.debug("Attempting to create batch of {} orders", orderDTOs.size());
+        List<OrderResultDTO> results = orderIntakeService.submitOrders(orderDTOs);
+        if (log.isDebugEnabled()) {
+            log.debug("Order batch processed: {} of {} accepted",
+                    results.stream().filter(OrderResultDTO::isAccepted).count(), results.size());
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @Override
     @GetMapping("/customer/{customerId}")
-    @PreAuthorize("#customerId == authentication.principal.id or hasRole('ADMIN')")
+    @PreAuthorize("hasRole('ADMIN') or #customerId == authentication.principal.id")
     public ResponseEntity<List<OrderDTO>> getOrdersByCustomer(@PathVariable Long customerId) {
         log.debug("Fetching all orders for customer ID: {}", customerId);
         List<OrderDTO> orders = orderService.getOrdersByCustomer(customerId);
@@ -56,13 +83,60 @@ public class OrderController implements OrderAPI {
         return ResponseEntity.ok(orders);
     }
 
+    @Override
+    @GetMapping("/customer/{customerId}/page")
+    @PreAuthorize("hasRole('ADMIN') or #customerId == authentication.principal.id")
+    public ResponseEntity<OrderPageDTO> getOrderPage(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_ORDER_PAGE_SIZE) int size,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate) {
+        log.debug("Fetching order page of {} for customer ID: {}", size, customerId);
+        return ResponseEntity.ok(orderService.getOrderPage(customerId, startDate, endDate, cursor, size));
+    }
+
+    @Override
+    @GetMapping("/customer/{customerId}/stream")
+    @PreAuthorize("hasRole('ADMIN') or #customerId == authentication.principal.id")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate) {
+        log.debug("Streaming orders for customer ID: {}", customerId);
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(OrderDTO.class);
+            orderService.streamOrders(customerId, startDate, endDate, order -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(order));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @Override
     @PostMapping("/{orderId}/cancel")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> cancelOrder(@PathVariable Long orderId) {
         log.debug("Attempting to cancel order with ID: {}", orderId);
-        orderService.cancelOrder(orderId);
-        log.info("Order {} cancelled successfully", orderId);
+        orderIntakeService.cancelOrder(orderId);
+        log.debug("Order {} cancelled successfully", orderId);
         return ResponseEntity.noContent().build();
     }
+
+    @Override
+    @PostMapping("/cancel-all")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderCancelResultDTO> cancelOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String assetName,
+            @RequestParam(required = false) Side side) {
+        int canceled = orderIntakeService.cancelOrders(customerId, assetName, side);
+        log.info("Cancelled {} pending order(s) [customer: {}, asset: {}, side: {}]", canceled, customerId, assetName, side);
+        return ResponseEntity.ok(OrderCancelResultDTO.builder().canceled(canceled).build());
+    }
 }
\ No newline at end of file
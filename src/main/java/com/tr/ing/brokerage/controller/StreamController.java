@@ -0,0 +1,32 @@
+package com.tr.ing.brokerage.controller;
+
+import com.tr.ing.brokerage.api.StreamAPI;
+import com.tr.ing.brokerage.stream.CustomerEventStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
+
+@Slf4j
+@RestController
+@RequestMapping(API_BASE_PATH + "/stream")
+@RequiredArgsConstructor
+public class StreamController implements StreamAPI {
+
+    private final CustomerEventStream customerEventStream;
+
+    @Override
+    @GetMapping(path = "/customers/{customerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or #customerId == authentication.principal.id")
+    public SseEmitter streamCustomerEvents(@PathVariable final Long customerId) {
+        log.debug("Opening event stream for customer ID: {}", customerId);
+        return customerEventStream.subscribe(customerId);
+    }
+}
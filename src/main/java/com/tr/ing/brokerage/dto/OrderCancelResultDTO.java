@@ -0,0 +1,13 @@
+package com.tr.ing.brokerage.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCancelResultDTO {
+
+    private int canceled;
+}
@@ -26,7 +26,11 @@ public class OrderDTO {
 
     private BigDecimal price;
 
+    private BigDecimal filledSize;
+
     private Status status;
 
     private LocalDateTime createDate;
+
+    private String clientOrderId;
 }
@@ -0,0 +1,20 @@
+package com.tr.ing.brokerage.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDTO {
+
+    private List<OrderDTO> orders;
+
+    /**
+     * Opaque position after the last order of this page, null on the last page
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.tr.ing.brokerage.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderResultDTO {
+
+    private int index;
+
+    private boolean accepted;
+
+    private OrderDTO order;
+
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.tr.ing.brokerage.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioAssetDTO {
+
+    private String assetName;
+
+    private BigDecimal size;
+
+    private BigDecimal usableSize;
+
+    /**
+     * Held by open orders: size minus usable size
+     */
+    private BigDecimal reservedSize;
+}
@@ -0,0 +1,17 @@
+package com.tr.ing.brokerage.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioDTO {
+
+    private Long customerId;
+
+    private List<PortfolioAssetDTO> assets;
+}
@@ -1,9 +1,14 @@
 package com.tr.ing.brokerage.entity;
 
+import com.tr.ing.brokerage.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.ParamDef;
 
 import java.util.List;
@@ -17,8 +22,11 @@ import java.util.List;
 @Builder
 @FilterDef(name = "softDeleteFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "softDeleteFilter", condition = "is_deleted = :isDeleted")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CUSTOMERS)
+@NaturalIdCache(region = HibernateCacheConfig.CUSTOMER_NATURAL_IDS)
 public class Customer extends BaseEntity {
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String customerId;
 
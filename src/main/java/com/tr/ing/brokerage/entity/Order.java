@@ -35,6 +35,10 @@ public class Order extends BaseEntity {
     @Column(precision = 19, scale = 4, nullable = false)
     private BigDecimal price;
 
+    @Column(name = "filled_size", precision = 19, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal filledSize = BigDecimal.ZERO;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -42,4 +46,7 @@ public class Order extends BaseEntity {
 
     @Column(name = "create_date", nullable = false)
     private LocalDateTime createDate;
+
+    @Column(name = "client_order_id", length = 64)
+    private String clientOrderId;
 }
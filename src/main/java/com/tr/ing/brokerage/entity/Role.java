@@ -1,8 +1,12 @@
 package com.tr.ing.brokerage.entity;
 
+import com.tr.ing.brokerage.config.HibernateCacheConfig;
 import com.tr.ing.brokerage.enums.RoleUser;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,6 +18,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = HibernateCacheConfig.ROLES)
 public class Role {
 
     @Id
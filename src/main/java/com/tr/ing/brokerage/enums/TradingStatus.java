@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.enums;
+
+public enum TradingStatus {
+
+    ACTIVE,
+    HALTED
+}
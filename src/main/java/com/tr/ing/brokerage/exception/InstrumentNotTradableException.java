@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InstrumentNotTradableException extends RuntimeException {
+    public InstrumentNotTradableException(String message) {
+        super(message);
+    }
+}
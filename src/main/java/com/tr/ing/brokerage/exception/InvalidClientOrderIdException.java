@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InvalidClientOrderIdException extends RuntimeException {
+    public InvalidClientOrderIdException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InvalidOrderBatchException extends RuntimeException {
+    public InvalidOrderBatchException(String message) {
+        super(message);
+    }
+}
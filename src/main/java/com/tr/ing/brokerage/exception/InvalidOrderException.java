@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InvalidOrderException extends RuntimeException {
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
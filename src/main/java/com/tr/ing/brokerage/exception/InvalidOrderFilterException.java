@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InvalidOrderFilterException extends RuntimeException {
+    public InvalidOrderFilterException(String message) {
+        super(message);
+    }
+}
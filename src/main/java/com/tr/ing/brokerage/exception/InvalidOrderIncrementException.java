@@ -0,0 +1,7 @@
+package com.tr.ing.brokerage.exception;
+
+public class InvalidOrderIncrementException extends RuntimeException {
+    public InvalidOrderIncrementException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,26 @@
 package com.tr.ing.brokerage.helper;
 
+import com.tr.ing.brokerage.dto.AssetDTO;
 import com.tr.ing.brokerage.dto.OrderDTO;
 import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.entity.Order;
 import com.tr.ing.brokerage.enums.Side;
 import com.tr.ing.brokerage.exception.AssetNotFoundException;
 import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.ledger.BalanceStore;
+import com.tr.ing.brokerage.matching.Fill;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.portfolio.BalanceChangedEvent;
 import com.tr.ing.brokerage.repository.AssetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.*;
 
 import static com.tr.ing.brokerage.constant.Assets.TRY_ASSETS;
 
@@ -20,6 +30,9 @@ import static com.tr.ing.brokerage.constant.Assets.TRY_ASSETS;
 public class AssetValidationHelper {
 
     private final AssetRepository assetRepository;
+    private final BalanceStore balanceStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BrokerageMetrics metrics;
 
     // ========== PUBLIC API METHODS ==========
 
@@ -35,34 +48,120 @@ public class AssetValidationHelper {
             processSellOrder(orderDTO);
         }
 
-        log.info("Processed {} order [ID: {}]", orderDTO.getSide(), orderDTO.getId());
+        log.debug("Processed {} order [ID: {}]", orderDTO.getSide(), orderDTO.getId());
     }
 
     /**
-     * Restores assets when order is cancelled
+     * Reserves balances for a basket of one customer's orders with one balance read and one
+     * reservation per asset. Orders are accepted in sequence while the running balance covers
+     * them; the rejected ones are returned with the reason.
+     */
+    public Map<OrderDTO, String> reserveOrders(Long customerId, List<OrderDTO> orders) {
+        Map<OrderDTO, String> rejected = new HashMap<>();
+        Map<String, Optional<Money>> available = new HashMap<>();
+        Map<String, Money> required = new LinkedHashMap<>();
+
+        for (OrderDTO order : orders) {
+            String assetName = order.getSide() == Side.BUY ? TRY_ASSETS : order.getAssetName();
+            Money amount = order.getSide() == Side.BUY ? calculateOrderAmount(order) : Money.of(order.getSize());
+            Optional<Money> balance = available.computeIfAbsent(assetName,
+                    name -> balanceStore.find(customerId, name).map(b -> Money.of(b.usableSize())));
+
+            if (balance.isEmpty()) {
+                rejected.put(order, assetName + " asset not found");
+            } else if (balance.get().compareTo(amount) < 0) {
+                rejected.put(order, "Insufficient " + assetName + " balance");
+                metrics.insufficientBalance("reserve", assetName);
+            } else {
+                available.put(assetName, Optional.of(balance.get().minus(amount)));
+                required.merge(assetName, amount, Money::plus);
+            }
+        }
+
+        required.forEach((assetName, amount) -> reserve(customerId, assetName, amount));
+        if (log.isDebugEnabled()) {
+            log.debug("Reserved {} of {} basket order(s) for customer [ID: {}] across {} asset(s)",
+                    orders.size() - rejected.size(), orders.size(), customerId, required.size());
+        }
+        return rejected;
+    }
+
+    /**
+     * Restores assets when order is cancelled, releasing only the unfilled part
      */
     public void restoreOrderAssets(OrderDTO orderDTO) {
         log.debug("Restoring assets for {} order [ID: {}]",
                 orderDTO.getSide(), orderDTO.getId());
 
         if (orderDTO.getSide() == Side.BUY) {
-            BigDecimal amountToRestore = orderDTO.getPrice().multiply(orderDTO.getSize());
-            updateTryBalance(
-                    orderDTO.getCustomerId(),
-                    getTryAssetBalance(orderDTO.getCustomerId()).add(amountToRestore)
-            );
+            restoreBuyOrderAssets(orderDTO);
         } else {
-            updateAssetBalance(
-                    orderDTO.getCustomerId(),
-                    orderDTO.getAssetName(),
-                    getAssetBalance(orderDTO.getCustomerId(), orderDTO.getAssetName())
-                            .add(orderDTO.getSize())
-            );
+            restoreSellOrderAssets(orderDTO);
         }
 
         log.debug("Assets restored for order [ID: {}]", orderDTO.getId());
     }
 
+    /**
+     * Releases what a set of canceled orders still had reserved, with one release per customer
+     * and asset however many orders there are. {@code unfilled} maps each order id to the size
+     * left unfilled when it was canceled.
+     */
+    public void restoreOrderAssets(List<Order> orders, Map<Long, Money> unfilled) {
+        Map<Long, Map<String, Money>> refunds = new LinkedHashMap<>();
+        for (Order order : orders) {
+            Money remaining = unfilled.get(order.getId());
+            boolean buy = order.getSide() == Side.BUY;
+            refunds.computeIfAbsent(order.getCustomer().getId(), id -> new LinkedHashMap<>())
+                    .merge(buy ? TRY_ASSETS : order.getAssetName(),
+                            buy ? Money.of(order.getPrice()).times(remaining) : remaining, Money::plus);
+        }
+
+        refunds.forEach((customerId, amounts) -> amounts.forEach((assetName, amount) -> {
+            metrics.timeBalance("release", assetName, () -> balanceStore.release(customerId, assetName, amount));
+            balanceChanged(customerId, assetName);
+        }));
+        if (log.isDebugEnabled()) {
+            log.debug("Restored assets of {} canceled order(s) for {} customer(s)", orders.size(), refunds.size());
+        }
+    }
+
+    /**
+     * Settles the buyer side of a fill: spends the reserved TRY at the trade price,
+     * releases any price improvement and credits the bought asset
+     */
+    public void settleBuyFill(Customer buyer, Fill fill) {
+        Money cost = fill.getPrice().times(fill.getQuantity());
+        Money reserved = fill.getBuyLimitPrice().times(fill.getQuantity());
+
+        settle(buyer, TRY_ASSETS, cost.negate(), reserved.minus(cost));
+        settle(buyer, fill.getAssetName(), fill.getQuantity(), fill.getQuantity());
+        balanceChanged(buyer.getId(), TRY_ASSETS);
+        balanceChanged(buyer.getId(), fill.getAssetName());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Settled buy fill for customer [ID: {}]: {} {} for {} TRY",
+                    buyer.getId(), fill.getQuantity(), fill.getAssetName(), cost);
+        }
+    }
+
+    /**
+     * Settles the seller side of a fill: removes the reserved asset and credits TRY proceeds
+     */
+    public void settleSellFill(Customer seller, Fill fill) {
+        Money proceeds = fill.getPrice().times(fill.getQuantity());
+
+        settle(seller, fill.getAssetName(), fill.getQuantity().negate(), Money.ZERO);
+        settle(seller, TRY_ASSETS, proceeds, proceeds);
+        balanceChanged(seller.getId(), fill.getAssetName());
+        balanceChanged(seller.getId(), TRY_ASSETS);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Settled sell fill for customer [ID: {}]: {} {} for {} TRY",
+                    seller.getId(), fill.getQuantity(), fill.getAssetName(), proceeds);
+        }
+    }
+
     /**
      * Validates if customer has sufficient TRY balance
      */
@@ -71,6 +170,7 @@ public class AssetValidationHelper {
         if (tryBalance.compareTo(requiredAmount) < 0) {
             log.warn("Insufficient TRY balance for customer [ID: {}]. Required: {}, Available: {}",
                     customerId, requiredAmount, tryBalance);
+            metrics.insufficientBalance("validate", TRY_ASSETS);
             throw new InsufficientAssetException("Insufficient TRY balance");
         }
         log.debug("Validated TRY balance for customer [ID: {}]", customerId);
@@ -84,6 +184,7 @@ public class AssetValidationHelper {
         if (assetBalance.compareTo(requiredAmount) < 0) {
             log.warn("Insufficient {} balance for customer [ID: {}]. Required: {}, Available: {}",
                     assetName, customerId, requiredAmount, assetBalance);
+            metrics.insufficientBalance("validate", assetName);
             throw new InsufficientAssetException("Insufficient " + assetName + " balance");
         }
         log.debug("Validated {} balance for customer [ID: {}]", assetName, customerId);
@@ -93,26 +194,34 @@ public class AssetValidationHelper {
      * Gets current TRY balance for customer
      */
     public BigDecimal getTryAssetBalance(Long customerId) {
-        BigDecimal balance = getTryAssetEntity(customerId).getUsableSize();
-        log.debug("Retrieved TRY balance [{}] for customer [ID: {}]", balance, customerId);
-        return balance;
+        return getAssetBalance(customerId, TRY_ASSETS);
     }
 
     /**
      * Gets current asset balance for customer
      */
     public BigDecimal getAssetBalance(Long customerId, String assetName) {
-        BigDecimal balance = getAssetEntity(customerId, assetName).getUsableSize();
-        log.debug("Retrieved {} balance [{}] for customer [ID: {}]", assetName, balance, customerId);
+        BigDecimal balance = balanceStore.getUsableBalance(customerId, assetName);
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieved {} balance [{}] for customer [ID: {}]", assetName, balance, customerId);
+        }
         return balance;
     }
 
     public void updateAssetBalance(Long customerId, String assetName, BigDecimal newBalance) {
-        Asset asset = getAssetEntity(customerId, assetName);
-        asset.setUsableSize(newBalance);
-        assetRepository.save(asset);
-        log.debug("Updated {} balance to {} for customer [ID: {}]",
-                assetName, newBalance, customerId);
+        metrics.timeBalance("set", assetName,
+                () -> balanceStore.setUsableBalance(customerId, assetName, Money.of(newBalance)));
+        balanceChanged(customerId, assetName);
+        if (log.isDebugEnabled()) {
+            log.debug("Updated {} balance to {} for customer [ID: {}]", assetName, newBalance, customerId);
+        }
+    }
+
+    /**
+     * Tells listeners such as the portfolio snapshot that the asset's balance changed
+     */
+    public void balanceChanged(Long customerId, String assetName) {
+        eventPublisher.publishEvent(new BalanceChangedEvent(customerId, assetName));
     }
 
     public Asset getTryAssetEntity(Long customerId) {
@@ -123,65 +232,68 @@ public class AssetValidationHelper {
                 });
     }
 
+    /**
+     * Replaces persisted sizes with the current balance, which may not be flushed yet
+     */
+    public void applyCurrentBalance(AssetDTO assetDTO) {
+        balanceStore.find(assetDTO.getCustomerId(), assetDTO.getAssetName())
+                .ifPresent(balance -> {
+                    assetDTO.setSize(balance.size());
+                    assetDTO.setUsableSize(balance.usableSize());
+                });
+    }
+
 
     private void processBuyOrder(OrderDTO orderDTO) {
-        BigDecimal requiredAmount = calculateOrderAmount(orderDTO);
-        validateTryBalance(orderDTO.getCustomerId(), requiredAmount);
-        updateTryBalance(
-                orderDTO.getCustomerId(),
-                getTryAssetBalance(orderDTO.getCustomerId()).subtract(requiredAmount)
-        );
+        Money requiredAmount = calculateOrderAmount(orderDTO);
+        reserve(orderDTO.getCustomerId(), TRY_ASSETS, requiredAmount);
     }
 
     private void processSellOrder(OrderDTO orderDTO) {
-        validateAssetBalance(
-                orderDTO.getCustomerId(),
-                orderDTO.getAssetName(),
-                orderDTO.getSize()
-        );
-        updateAssetBalance(
-                orderDTO.getCustomerId(),
-                orderDTO.getAssetName(),
-                getAssetBalance(orderDTO.getCustomerId(), orderDTO.getAssetName())
-                        .subtract(orderDTO.getSize())
-        );
+        reserve(orderDTO.getCustomerId(), orderDTO.getAssetName(), Money.of(orderDTO.getSize()));
     }
 
     private void restoreBuyOrderAssets(OrderDTO orderDTO) {
-        BigDecimal amountToRestore = calculateOrderAmount(orderDTO);
-        updateTryBalance(
-                orderDTO.getCustomerId(),
-                getTryAssetBalance(orderDTO.getCustomerId()).add(amountToRestore)
-        );
+        Money amountToRestore = Money.of(orderDTO.getPrice()).times(remainingSize(orderDTO));
+        metrics.timeBalance("release", TRY_ASSETS,
+                () -> balanceStore.release(orderDTO.getCustomerId(), TRY_ASSETS, amountToRestore));
+        balanceChanged(orderDTO.getCustomerId(), TRY_ASSETS);
     }
 
     private void restoreSellOrderAssets(OrderDTO orderDTO) {
-        updateAssetBalance(
-                orderDTO.getCustomerId(),
-                orderDTO.getAssetName(),
-                getAssetBalance(orderDTO.getCustomerId(), orderDTO.getAssetName())
-                        .add(orderDTO.getSize())
-        );
+        metrics.timeBalance("release", orderDTO.getAssetName(),
+                () -> balanceStore.release(orderDTO.getCustomerId(), orderDTO.getAssetName(), remainingSize(orderDTO)));
+        balanceChanged(orderDTO.getCustomerId(), orderDTO.getAssetName());
     }
 
-    private void updateTryBalance(Long customerId, BigDecimal newBalance) {
-        Asset tryAsset = getTryAssetEntity(customerId);
-        tryAsset.setUsableSize(newBalance);
-        assetRepository.save(tryAsset);
-        log.debug("Updated TRY balance to {} for customer [ID: {}]", newBalance, customerId);
+    private void reserve(Long customerId, String assetName, Money amount) {
+        try {
+            metrics.timeBalance("reserve", assetName, () -> balanceStore.reserve(customerId, assetName, amount));
+            balanceChanged(customerId, assetName);
+            if (log.isDebugEnabled()) {
+                log.debug("Reserved {} {} for customer [ID: {}]", amount, assetName, customerId);
+            }
+        } catch (InsufficientAssetException e) {
+            log.warn("Insufficient {} balance for customer [ID: {}]. Required: {}",
+                    assetName, customerId, amount);
+            metrics.insufficientBalance("reserve", assetName);
+            throw e;
+        } catch (AssetNotFoundException e) {
+            log.error("{} asset not found for customer [ID: {}]", assetName, customerId);
+            throw e;
+        }
     }
 
-
-    private BigDecimal calculateOrderAmount(OrderDTO orderDTO) {
-        return orderDTO.getPrice().multiply(orderDTO.getSize());
+    private void settle(Customer customer, String assetName, Money sizeDelta, Money usableDelta) {
+        metrics.timeBalance("settle", assetName, () -> balanceStore.adjust(customer, assetName, sizeDelta, usableDelta));
     }
 
+    private Money calculateOrderAmount(OrderDTO orderDTO) {
+        return Money.of(orderDTO.getPrice()).times(Money.of(orderDTO.getSize()));
+    }
 
-    private Asset getAssetEntity(Long customerId, String assetName) {
-        return assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                .orElseThrow(() -> {
-                    log.error("{} asset not found for customer [ID: {}]", assetName, customerId);
-                    return new AssetNotFoundException(assetName + " asset not found");
-                });
+    private Money remainingSize(OrderDTO orderDTO) {
+        Money size = Money.of(orderDTO.getSize());
+        return orderDTO.getFilledSize() == null ? size : size.minus(Money.of(orderDTO.getFilledSize()));
     }
-}
\ No newline at end of file
+}
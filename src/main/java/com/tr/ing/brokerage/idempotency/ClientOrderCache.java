@@ -0,0 +1,45 @@
+package com.tr.ing.brokerage.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tr.ing.brokerage.dto.OrderDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Recently placed orders by customer and client order id, so a retried submission inside the
+ * dedup window gets the original result back without reaching the database. Past the window,
+ * or after a restart, retries fall back to the unique index on {@code orders}.
+ */
+@Component
+public class ClientOrderCache {
+
+    private final Cache<Key, OrderDTO> orders;
+
+    public ClientOrderCache(@Value("${brokerage.orders.dedup.max-size:100000}") long maxSize,
+                            @Value("${brokerage.orders.dedup.window:PT5M}") Duration window) {
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public Optional<OrderDTO> find(Long customerId, String clientOrderId) {
+        if (customerId == null || clientOrderId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(orders.getIfPresent(new Key(customerId, clientOrderId)));
+    }
+
+    public void put(OrderDTO order) {
+        if (order.getCustomerId() != null && order.getClientOrderId() != null) {
+            orders.put(new Key(order.getCustomerId(), order.getClientOrderId()), order);
+        }
+    }
+
+    private record Key(Long customerId, String clientOrderId) {
+    }
+}
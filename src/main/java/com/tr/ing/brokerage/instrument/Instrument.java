@@ -0,0 +1,35 @@
+package com.tr.ing.brokerage.instrument;
+
+import com.tr.ing.brokerage.enums.TradingStatus;
+import com.tr.ing.brokerage.money.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog entry for a tradable symbol. Prices must be a multiple of the tick size and
+ * order sizes a multiple of the lot size.
+ */
+public record Instrument(int id, String symbol, Money tickSize, Money lotSize, TradingStatus status) {
+
+    public boolean isTradable() {
+        return status == TradingStatus.ACTIVE;
+    }
+
+    public boolean isOnTick(BigDecimal price) {
+        return isMultipleOf(price, tickSize);
+    }
+
+    public boolean isOnLot(BigDecimal size) {
+        return isMultipleOf(size, lotSize);
+    }
+
+    /**
+     * Values with more decimals than {@link Money} keeps are never on an increment
+     */
+    private static boolean isMultipleOf(BigDecimal value, Money increment) {
+        if (value.scale() > Money.SCALE && value.stripTrailingZeros().scale() > Money.SCALE) {
+            return false;
+        }
+        return Money.of(value).units() % increment.units() == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tr.ing.brokerage.instrument;
+
+import com.tr.ing.brokerage.exception.InstrumentNotTradableException;
+import com.tr.ing.brokerage.exception.InvalidOrderIncrementException;
+import com.tr.ing.brokerage.repository.InstrumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable dictionary of the tradable instruments, read once at startup. Orders are checked
+ * against it in memory, and the symbol it hands back is the single interned instance for
+ * that name, so downstream maps compare keys by reference before falling back to equals.
+ */
+@Slf4j
+@Component
+public class InstrumentCatalog {
+
+    private final Map<String, Instrument> bySymbol;
+    private final Instrument[] byId;
+
+    @Autowired
+    public InstrumentCatalog(InstrumentRepository instrumentRepository) {
+        this(instrumentRepository.findAll());
+        log.info("Loaded {} instrument(s) into the catalog", bySymbol.size());
+    }
+
+    public InstrumentCatalog(Collection<Instrument> instruments) {
+        this.bySymbol = instruments.stream()
+                .collect(Collectors.toUnmodifiableMap(Instrument::symbol, Function.identity()));
+        this.byId = new Instrument[instruments.stream().mapToInt(Instrument::id).max().orElse(-1) + 1];
+        instruments.forEach(instrument -> byId[instrument.id()] = instrument);
+    }
+
+    public Optional<Instrument> find(String symbol) {
+        return symbol == null ? Optional.empty() : Optional.ofNullable(bySymbol.get(symbol));
+    }
+
+    public Instrument require(String symbol) {
+        return find(symbol).orElseThrow(() -> new InstrumentNotTradableException("Unknown asset: " + symbol));
+    }
+
+    public Instrument get(int id) {
+        return byId[id];
+    }
+
+    /**
+     * Upper bound of the instrument ids, for tables indexed by id
+     */
+    public int idBound() {
+        return byId.length;
+    }
+
+    public List<Instrument> getInstruments() {
+        return Arrays.stream(byId).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Rejects unknown and halted symbols and prices or sizes off the instrument's tick or lot
+     * size. Null prices and sizes are left to the caller's own checks.
+     */
+    public Instrument validate(String symbol, BigDecimal price, BigDecimal size) {
+        Instrument instrument = require(symbol);
+        if (!instrument.isTradable()) {
+            throw new InstrumentNotTradableException("Asset " + symbol + " is " + instrument.status());
+        }
+        if (price != null && !instrument.isOnTick(price)) {
+            throw new InvalidOrderIncrementException("Price " + price.toPlainString() +
+                    " is not a multiple of the tick size " + instrument.tickSize().toBigDecimal().stripTrailingZeros().toPlainString());
+        }
+        if (size != null && !instrument.isOnLot(size)) {
+            throw new InvalidOrderIncrementException("Size " + size.toPlainString() +
+                    " is not a multiple of the lot size " + instrument.lotSize().toBigDecimal().stripTrailingZeros().toPlainString());
+        }
+        return instrument;
+    }
+}
@@ -0,0 +1,330 @@
+package com.tr.ing.brokerage.journal;
+
+import com.tr.ing.brokerage.enums.Side;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only event journal stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Each record is {@code [length][crc32][first sequence, count, events...]} and holds one
+ * atomically appended batch. A zero length marks the end of a segment; a torn or corrupt
+ * tail record is ignored when the journal is reopened. Segments are named after the first
+ * sequence they contain so readers can skip whole files.
+ */
+@Slf4j
+@Component
+public class EventJournal implements DisposableBean {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final List<Path> segments = new ArrayList<>();
+
+    /**
+     * Held across segment writes and {@code force()}, so virtual-thread callers can unmount
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private MappedByteBuffer current;
+    private long lastSequence;
+
+    public EventJournal(@Value("${brokerage.journal.directory}") String directory,
+                        @Value("${brokerage.journal.segment-size:67108864}") int segmentSize,
+                        @Value("${brokerage.journal.fsync:true}") boolean fsync) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        Files.createDirectories(this.directory);
+
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            for (Path segment : segments) {
+                scan(segment, event -> lastSequence = event.sequence());
+            }
+            current = map(segments.get(segments.size() - 1));
+            current.position(scan(segments.get(segments.size() - 1), event -> { }));
+            discardTornTail();
+        }
+        log.info("Opened event journal {} with {} segment(s) at sequence {}", directory, segments.size(), lastSequence);
+    }
+
+    /**
+     * Appends the events as one atomic record and returns the sequence of the last one
+     */
+    public long append(List<JournalEvent> events) {
+        lock.lock();
+        try {
+            byte[] payload = encode(lastSequence + 1, events);
+            int recordBytes = HEADER_BYTES + payload.length;
+            if (recordBytes > segmentSize - Integer.BYTES) {
+                throw new IllegalArgumentException("Journal record of " + recordBytes + " bytes exceeds segment size");
+            }
+            if (current.remaining() < recordBytes + Integer.BYTES) {
+                roll(lastSequence + 1);
+            }
+
+            current.putInt(payload.length).putInt(crc(payload)).put(payload);
+            if (fsync) {
+                current.force();
+            }
+            lastSequence += events.size();
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes every event after the given sequence to the consumer, in append order
+     */
+    public void forEachAfter(long sequence, Consumer<JournalEvent> consumer) {
+        lock.lock();
+        try {
+            for (int i = 0; i < segments.size(); i++) {
+                if (i + 1 < segments.size() && baseSequence(segments.get(i + 1)) <= sequence + 1) {
+                    continue;
+                }
+                scan(segments.get(i), event -> {
+                    if (event.sequence() > sequence) {
+                        consumer.accept(event);
+                    }
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Continues numbering after a sequence that is already durable elsewhere
+     */
+    public void advanceTo(long sequence) {
+        lock.lock();
+        try {
+            lastSequence = Math.max(lastSequence, sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            current.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll(long nextSequence) {
+        current.putInt(0);
+        current.force();
+        openSegment(nextSequence);
+    }
+
+    private void discardTornTail() {
+        int position = current.position();
+        if (current.getInt(position) == 0) {
+            return;
+        }
+        for (int offset = position; offset < current.capacity(); offset++) {
+            current.put(offset, (byte) 0);
+        }
+        current.force();
+    }
+
+    private void openSegment(long baseSequence) {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX));
+        segments.add(segment);
+        current = map(segment);
+    }
+
+    private MappedByteBuffer map(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map journal segment " + segment, e);
+        }
+    }
+
+    /**
+     * Reads the valid records of a segment and returns the offset after the last one
+     */
+    private int scan(Path segment, Consumer<JournalEvent> consumer) {
+        ByteBuffer buffer = segment.equals(segments.get(segments.size() - 1)) && current != null
+                ? current.duplicate()
+                : map(segment);
+        int position = 0;
+
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0) {
+                break;
+            }
+            if (position + HEADER_BYTES + length > buffer.capacity()) {
+                log.warn("Ignoring torn journal record in {} at offset {}", segment, position);
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            if (crc(payload) != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Ignoring corrupt journal record in {} at offset {}", segment, position);
+                break;
+            }
+            decode(payload).forEach(consumer);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static long baseSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(long firstSequence, List<JournalEvent> events) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96 * events.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(firstSequence);
+            out.writeInt(events.size());
+            for (JournalEvent event : events) {
+                out.writeLong(event.timestamp());
+                out.writeByte(event.type().ordinal());
+                writeLong(out, event.orderId());
+                writeLong(out, event.customerId());
+                writeString(out, event.assetName());
+                out.writeByte(event.side() == null ? -1 : event.side().ordinal());
+                writeDecimal(out, event.price());
+                writeDecimal(out, event.size());
+                writeDecimal(out, event.usableSize());
+                out.writeBoolean(event.writeBehind());
+                writeDateTime(out, event.createDate());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<JournalEvent> decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long sequence = in.readLong();
+            int count = in.readInt();
+            List<JournalEvent> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long timestamp = in.readLong();
+                EventType type = EventType.values()[in.readByte()];
+                Long orderId = readLong(in);
+                Long customerId = readLong(in);
+                String assetName = readString(in);
+                byte side = in.readByte();
+                events.add(new JournalEvent(sequence + i, timestamp, type, orderId, customerId, assetName,
+                        side < 0 ? null : Side.values()[side],
+                        readDecimal(in), readDecimal(in), readDecimal(in), in.readBoolean(), readDateTime(in)));
+            }
+            return events;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        writeString(out, value == null ? null : value.toPlainString());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        String value = readString(in);
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    /**
+     * Stored as the ISO local date-time, so it reads back unchanged whatever the zone of either JVM
+     */
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeString(out, value == null ? null : value.toString());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        String value = readString(in);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,9 @@
+package com.tr.ing.brokerage.journal;
+
+public enum EventType {
+    ORDER_CREATED,
+    ORDER_FILLED,
+    ORDER_CANCELED,
+    ASSET_CREATED,
+    BALANCE_CHANGED
+}
@@ -0,0 +1,69 @@
+package com.tr.ing.brokerage.journal;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Journaled state change. The meaning of {@code price}, {@code size} and {@code usableSize}
+ * depends on the type:
+ * <ul>
+ *     <li>ORDER_CREATED: limit price and order size</li>
+ *     <li>ORDER_FILLED: trade price and filled quantity</li>
+ *     <li>ASSET_CREATED: initial size and usable size</li>
+ *     <li>BALANCE_CHANGED: size and usable size deltas</li>
+ * </ul>
+ * {@code writeBehind} marks balance changes that the write-behind ledger still has to flush.
+ * {@code createDate} is the order's own creation date on ORDER_CREATED, and null otherwise.
+ */
+public record JournalEvent(long sequence,
+                           long timestamp,
+                           EventType type,
+                           Long orderId,
+                           Long customerId,
+                           String assetName,
+                           Side side,
+                           BigDecimal price,
+                           BigDecimal size,
+                           BigDecimal usableSize,
+                           boolean writeBehind,
+                           LocalDateTime createDate) {
+
+    public static JournalEvent orderCreated(Order order) {
+        return new JournalEvent(0, now(), EventType.ORDER_CREATED, order.getId(), order.getCustomer().getId(),
+                order.getAssetName(), order.getSide(), order.getPrice(), order.getSize(), null, false, order.getCreateDate());
+    }
+
+    public static JournalEvent orderFilled(Order order, BigDecimal price, BigDecimal quantity) {
+        return new JournalEvent(0, now(), EventType.ORDER_FILLED, order.getId(), order.getCustomer().getId(),
+                order.getAssetName(), order.getSide(), price, quantity, null, false, null);
+    }
+
+    public static JournalEvent orderCanceled(Order order) {
+        return new JournalEvent(0, now(), EventType.ORDER_CANCELED, order.getId(), order.getCustomer().getId(),
+                order.getAssetName(), order.getSide(), null, null, null, false, null);
+    }
+
+    public static JournalEvent assetCreated(Asset asset) {
+        return new JournalEvent(0, now(), EventType.ASSET_CREATED, null, asset.getCustomer().getId(),
+                asset.getAssetName(), null, null, asset.getSize(), asset.getUsableSize(), false, null);
+    }
+
+    public static JournalEvent balanceChanged(Long customerId, String assetName,
+                                              BigDecimal sizeDelta, BigDecimal usableDelta, boolean writeBehind) {
+        return new JournalEvent(0, now(), EventType.BALANCE_CHANGED, null, customerId,
+                assetName, null, null, sizeDelta, usableDelta, writeBehind, null);
+    }
+
+    JournalEvent withSequence(long sequence) {
+        return new JournalEvent(sequence, timestamp, type, orderId, customerId, assetName,
+                side, price, size, usableSize, writeBehind, createDate);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
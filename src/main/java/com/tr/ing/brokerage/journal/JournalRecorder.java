@@ -0,0 +1,48 @@
+package com.tr.ing.brokerage.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records events in the journal once the surrounding transaction commits, so rolled back
+ * changes never reach it. All events of one transaction are appended as a single record.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalRecorder {
+
+    private final EventJournal journal;
+
+    public void record(JournalEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal.append(List.of(event));
+            return;
+        }
+
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<JournalEvent> events = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(JournalRecorder.this);
+            if (status == STATUS_COMMITTED) {
+                journal.append(events);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.tr.ing.brokerage.journal;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.ledger.Balance;
+import com.tr.ing.brokerage.ledger.BalanceKey;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import com.tr.ing.brokerage.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds asset and order state from the event journal, either in memory for inspection or
+ * into the database on startup. Replay can stop at a point in time to restore an earlier state.
+ */
+@Slf4j
+@Component
+public class JournalReplayer implements ApplicationRunner {
+
+    private static final String REPLAY_USER = "journal-replay";
+    private static final String UPDATE_ASSET_SQL =
+            "UPDATE assets SET size = ?, usable_size = ?, version = version + 1, updated_at = ? " +
+                    "WHERE customer_id = ? AND asset_name = ?";
+    private static final String UPDATE_ORDER_SQL =
+            "UPDATE orders SET status = ?, filled_size = ?, version = version + 1, updated_at = ? WHERE id = ?";
+    private static final String DELETE_ORDERS_AFTER_SQL = "DELETE FROM orders WHERE create_date > ?";
+    private static final String RESET_ASSETS_AFTER_SQL =
+            "UPDATE assets SET size = 0, usable_size = 0, version = version + 1, updated_at = ? WHERE created_at > ?";
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, customer_id, asset_name, side, size, price, filled_size, status, create_date, " +
+                    "created_at, created_by, is_active, version) " +
+                    "SELECT ?, id, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, 0 FROM customers WHERE id = ?";
+
+    private final EventJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetRepository assetRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean replayOnStartup;
+    private final String replayUpTo;
+
+    public JournalReplayer(EventJournal journal,
+                           JdbcTemplate jdbcTemplate,
+                           AssetRepository assetRepository,
+                           CustomerRepository customerRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${brokerage.journal.replay-on-startup:false}") boolean replayOnStartup,
+                           @Value("${brokerage.journal.replay-up-to:}") String replayUpTo) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.assetRepository = assetRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayOnStartup = replayOnStartup;
+        this.replayUpTo = replayUpTo;
+    }
+
+    /**
+     * Runs before the order books are rebuilt, so they are loaded from the restored orders
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!replayOnStartup) {
+            return;
+        }
+        Instant upTo = StringUtils.hasText(replayUpTo) ? Instant.parse(replayUpTo) : null;
+        restore(replay(upTo));
+    }
+
+    /**
+     * Replays every journaled event recorded at or before the given instant, or all of them when null
+     */
+    public JournalSnapshot replay(Instant upTo) {
+        long limit = upTo == null ? Long.MAX_VALUE : upTo.toEpochMilli();
+        Map<BalanceKey, Balance> balances = new LinkedHashMap<>();
+        Map<Long, JournalSnapshot.OrderState> orders = new LinkedHashMap<>();
+        long[] sequence = {0};
+
+        journal.forEachAfter(0, event -> {
+            if (event.timestamp() > limit) {
+                return;
+            }
+            apply(event, balances, orders);
+            sequence[0] = event.sequence();
+        });
+
+        log.info("Replayed journal up to sequence {}: {} balance(s), {} order(s)",
+                sequence[0], balances.size(), orders.size());
+        return new JournalSnapshot(sequence[0], upTo, balances, orders);
+    }
+
+    /**
+     * Writes the snapshot over the assets and orders tables. Rows of customers that no longer
+     * exist are skipped. Missing assets are inserted through JPA so their ids come from the
+     * entity's own sequence generator.
+     * <p>
+     * A point-in-time snapshot first deletes the orders created after it and zeroes the assets
+     * created after it, so no order outlives the reservations and settlements being rolled back.
+     */
+    public void restore(JournalSnapshot snapshot) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] skipped = {0};
+        int[] discarded = {0};
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (snapshot.upTo() != null) {
+                Timestamp upTo = Timestamp.valueOf(LocalDateTime.ofInstant(snapshot.upTo(), ZoneId.systemDefault()));
+                discarded[0] = jdbcTemplate.update(DELETE_ORDERS_AFTER_SQL, upTo);
+                jdbcTemplate.update(RESET_ASSETS_AFTER_SQL, now, upTo);
+            }
+
+            snapshot.balances().forEach((key, balance) -> {
+                if (jdbcTemplate.update(UPDATE_ASSET_SQL, balance.size(), balance.usableSize(), now,
+                        key.customerId(), key.assetName()) == 0
+                        && !insertAsset(key, balance)) {
+                    skipped[0]++;
+                }
+            });
+
+            snapshot.orders().values().forEach(order -> {
+                if (jdbcTemplate.update(UPDATE_ORDER_SQL, order.status().name(), order.filledSize(), now,
+                        order.orderId()) == 0
+                        && jdbcTemplate.update(INSERT_ORDER_SQL, order.orderId(), order.assetName(),
+                        order.side().name(), order.size(), order.price(), order.filledSize(),
+                        order.status().name(), Timestamp.valueOf(order.createDate()), now, REPLAY_USER,
+                        order.customerId()) == 0) {
+                    skipped[0]++;
+                }
+            });
+        });
+
+        log.warn("Restored {} balance(s) and {} order(s) from journal sequence {}, skipped {} of unknown customers, " +
+                        "discarded {} order(s) created after the snapshot",
+                snapshot.balances().size(), snapshot.orders().size(), snapshot.sequence(), skipped[0], discarded[0]);
+    }
+
+    private boolean insertAsset(BalanceKey key, Balance balance) {
+        return customerRepository.findById(key.customerId())
+                .map(customer -> {
+                    Asset asset = Asset.builder()
+                            .customer(customer)
+                            .assetName(key.assetName())
+                            .size(balance.size())
+                            .usableSize(balance.usableSize())
+                            .build();
+                    asset.setCreatedBy(REPLAY_USER);
+                    return assetRepository.save(asset);
+                })
+                .isPresent();
+    }
+
+    private static void apply(JournalEvent event,
+                              Map<BalanceKey, Balance> balances,
+                              Map<Long, JournalSnapshot.OrderState> orders) {
+        switch (event.type()) {
+            case ORDER_CREATED -> orders.put(event.orderId(), new JournalSnapshot.OrderState(
+                    event.orderId(), event.customerId(), event.assetName(), event.side(),
+                    event.price(), event.size(), BigDecimal.ZERO, Status.PENDING, event.createDate()));
+            case ORDER_FILLED -> orders.computeIfPresent(event.orderId(), (id, order) -> order.fill(event.size()));
+            case ORDER_CANCELED -> orders.computeIfPresent(event.orderId(), (id, order) -> order.cancel());
+            case ASSET_CREATED -> balances.put(new BalanceKey(event.customerId(), event.assetName()),
+                    new Balance(event.size(), event.usableSize()));
+            case BALANCE_CHANGED -> balances.merge(new BalanceKey(event.customerId(), event.assetName()),
+                    new Balance(event.size(), event.usableSize()),
+                    (current, delta) -> new Balance(current.size().add(delta.size()),
+                            current.usableSize().add(delta.usableSize())));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tr.ing.brokerage.journal;
+
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.ledger.Balance;
+import com.tr.ing.brokerage.ledger.BalanceKey;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Asset balances and order states rebuilt from the journal up to a sequence. {@code upTo} is
+ * the point in time the replay stopped at, or null when it replayed the whole journal.
+ */
+public record JournalSnapshot(long sequence,
+                              Instant upTo,
+                              Map<BalanceKey, Balance> balances,
+                              Map<Long, OrderState> orders) {
+
+    public record OrderState(Long orderId,
+                             Long customerId,
+                             String assetName,
+                             Side side,
+                             BigDecimal price,
+                             BigDecimal size,
+                             BigDecimal filledSize,
+                             Status status,
+                             LocalDateTime createDate) {
+
+        OrderState fill(BigDecimal quantity) {
+            BigDecimal filled = filledSize.add(quantity);
+            return new OrderState(orderId, customerId, assetName, side, price, size, filled,
+                    filled.compareTo(size) >= 0 ? Status.MATCHED : status, createDate);
+        }
+
+        OrderState cancel() {
+            return new OrderState(orderId, customerId, assetName, side, price, size, filledSize,
+                    Status.CANCELED, createDate);
+        }
+    }
+}
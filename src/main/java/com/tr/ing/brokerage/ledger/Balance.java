@@ -0,0 +1,6 @@
+package com.tr.ing.brokerage.ledger;
+
+import java.math.BigDecimal;
+
+public record Balance(BigDecimal size, BigDecimal usableSize) {
+}
@@ -0,0 +1,14 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.money.Money;
+
+public record BalanceDelta(BalanceKey key, Money sizeDelta, Money usableDelta) {
+
+    public BalanceDelta plus(BalanceDelta other) {
+        return new BalanceDelta(key, sizeDelta.plus(other.sizeDelta), usableDelta.plus(other.usableDelta));
+    }
+
+    public BalanceDelta negate() {
+        return new BalanceDelta(key, sizeDelta.negate(), usableDelta.negate());
+    }
+}
@@ -0,0 +1,4 @@
+package com.tr.ing.brokerage.ledger;
+
+public record BalanceKey(Long customerId, String assetName) {
+}
@@ -0,0 +1,31 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.money.Money;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Source of truth for customer asset balances on the order hot path
+ */
+public interface BalanceStore {
+
+    Optional<Balance> find(Long customerId, String assetName);
+
+    BigDecimal getUsableBalance(Long customerId, String assetName);
+
+    /**
+     * Atomically checks and debits the usable balance
+     */
+    void reserve(Long customerId, String assetName, Money amount);
+
+    void release(Long customerId, String assetName, Money amount);
+
+    void setUsableBalance(Long customerId, String assetName, Money usableSize);
+
+    /**
+     * Applies size and usable size deltas, creating the asset when it does not exist yet
+     */
+    void adjust(Customer customer, String assetName, Money sizeDelta, Money usableDelta);
+}
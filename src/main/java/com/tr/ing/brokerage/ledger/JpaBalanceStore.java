@@ -0,0 +1,96 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.exception.AssetNotFoundException;
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Balance store that reads and writes the assets table directly. Reservations and deltas are
+ * single conditional updates, so concurrent orders never lose an update or hit a version conflict.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "brokerage.ledger.enabled", havingValue = "false")
+public class JpaBalanceStore implements BalanceStore {
+
+    private final AssetRepository assetRepository;
+    private final JournalRecorder journalRecorder;
+
+    @Override
+    public Optional<Balance> find(Long customerId, String assetName) {
+        return assetRepository.findBalance(customerId, assetName);
+    }
+
+    @Override
+    public BigDecimal getUsableBalance(Long customerId, String assetName) {
+        return find(customerId, assetName)
+                .map(Balance::usableSize)
+                .orElseThrow(() -> new AssetNotFoundException(assetName + " asset not found"));
+    }
+
+    /**
+     * One conditional update; the existence check only runs when it matched no row
+     */
+    @Override
+    public void reserve(Long customerId, String assetName, Money amount) {
+        if (assetRepository.reserveUsableSize(customerId, assetName, amount.toBigDecimal()) == 0) {
+            if (!assetRepository.existsByCustomerIdAndAssetName(customerId, assetName)) {
+                throw new AssetNotFoundException(assetName + " asset not found");
+            }
+            throw new InsufficientAssetException("Insufficient " + assetName + " balance");
+        }
+        recordChange(customerId, assetName, Money.ZERO, amount.negate());
+    }
+
+    @Override
+    public void release(Long customerId, String assetName, Money amount) {
+        if (assetRepository.adjustBalance(customerId, assetName, BigDecimal.ZERO, amount.toBigDecimal()) == 0) {
+            throw new AssetNotFoundException(assetName + " asset not found");
+        }
+        recordChange(customerId, assetName, Money.ZERO, amount);
+    }
+
+    @Override
+    public void setUsableBalance(Long customerId, String assetName, Money usableSize) {
+        Asset asset = getAsset(customerId, assetName);
+        Money delta = usableSize.minus(Money.of(asset.getUsableSize()));
+        asset.setUsableSize(usableSize.toBigDecimal());
+        assetRepository.save(asset);
+        recordChange(customerId, assetName, Money.ZERO, delta);
+    }
+
+    @Override
+    public void adjust(Customer customer, String assetName, Money sizeDelta, Money usableDelta) {
+        if (assetRepository.adjustBalance(customer.getId(), assetName,
+                sizeDelta.toBigDecimal(), usableDelta.toBigDecimal()) == 0) {
+            assetRepository.save(Asset.builder()
+                    .customer(customer)
+                    .assetName(assetName)
+                    .size(sizeDelta.toBigDecimal())
+                    .usableSize(usableDelta.toBigDecimal())
+                    .build());
+        }
+        recordChange(customer.getId(), assetName, sizeDelta, usableDelta);
+    }
+
+    private void recordChange(Long customerId, String assetName, Money sizeDelta, Money usableDelta) {
+        journalRecorder.record(JournalEvent.balanceChanged(customerId, assetName,
+                sizeDelta.toBigDecimal(), usableDelta.toBigDecimal(), false));
+    }
+
+    private Asset getAsset(Long customerId, String assetName) {
+        return assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
+                .orElseThrow(() -> new AssetNotFoundException(assetName + " asset not found"));
+    }
+}
@@ -0,0 +1,529 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.exception.AssetNotFoundException;
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.journal.EventJournal;
+import com.tr.ing.brokerage.journal.EventType;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory authoritative balance store. Usable balances are checked and reserved in
+ * memory on fixed-point longs; committed deltas are journaled and written behind to the assets table in
+ * batches, and replayed from the journal after a crash.
+ * <p>
+ * Inside a transaction, debits are taken from the shared balance at once, so concurrent
+ * reservations cannot overdraw it, while credits are held back until the transaction commits,
+ * so no other transaction can spend them before then. A transaction spends its own pending
+ * credits first, and a rollback only gives back the debits it took.
+ * <p>
+ * A transaction's deltas are journaled just before it commits, and the journal record is
+ * registered in {@code ledger_commits} within the same transaction. Recovery replays only
+ * registered records, so a crash on either side of the commit neither loses nor invents deltas.
+ * <p>
+ * Entries idle for longer than {@code brokerage.ledger.idle-eviction-ms}, with no transaction
+ * holding them and nothing left to flush, are evicted and reloaded from the table on next use.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "brokerage.ledger.enabled", havingValue = "true", matchIfMissing = true)
+public class WriteBehindBalanceLedger implements BalanceStore {
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE assets SET size = size + ?, usable_size = usable_size + ?, version = version + 1, updated_at = ? " +
+                    "WHERE customer_id = ? AND asset_name = ?";
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT last_sequence FROM ledger_checkpoint WHERE id = 1";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE ledger_checkpoint SET last_sequence = ? WHERE id = 1";
+    private static final String INSERT_COMMIT_SQL = "INSERT INTO ledger_commits (first_sequence, last_sequence) VALUES (?, ?)";
+    private static final String SELECT_COMMITS_SQL = "SELECT first_sequence, last_sequence FROM ledger_commits";
+    private static final String DELETE_COMMIT_SQL = "DELETE FROM ledger_commits WHERE first_sequence = ?";
+
+    private final AssetRepository assetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventJournal journal;
+    private final long idleEvictionMs;
+
+    private final ConcurrentMap<BalanceKey, LedgerEntry> entries = new ConcurrentHashMap<>();
+    /**
+     * Locks rather than monitors: both are held across journal and JDBC I/O, which would
+     * pin the carrier when the caller is a virtual thread
+     */
+    private final Lock commitLock = new ReentrantLock();
+    private final Lock flushLock = new ReentrantLock();
+    private Map<BalanceKey, BalanceDelta> unflushed = new LinkedHashMap<>();
+    private List<Long> unflushedRecords = new ArrayList<>();
+    private long lastCommittedSequence;
+
+    public WriteBehindBalanceLedger(AssetRepository assetRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    EventJournal journal,
+                                    @Value("${brokerage.ledger.idle-eviction-ms:600000}") long idleEvictionMs) {
+        this.assetRepository = assetRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = journal;
+        this.idleEvictionMs = idleEvictionMs;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long checkpoint = readCheckpoint();
+        journal.advanceTo(checkpoint);
+        lastCommittedSequence = checkpoint;
+
+        NavigableMap<Long, Long> committed = new TreeMap<>();
+        jdbcTemplate.query(SELECT_COMMITS_SQL, (rs, rowNum) -> Map.entry(rs.getLong(1), rs.getLong(2)))
+                .forEach(record -> committed.put(record.getKey(), record.getValue()));
+        if (committed.isEmpty()) {
+            return;
+        }
+
+        Map<BalanceKey, BalanceDelta> replay = new LinkedHashMap<>();
+        long[] replayed = {0};
+        journal.forEachAfter(committed.firstKey() - 1, event -> {
+            Map.Entry<Long, Long> record = committed.floorEntry(event.sequence());
+            if (event.type() == EventType.BALANCE_CHANGED && event.writeBehind()
+                    && record != null && event.sequence() <= record.getValue()) {
+                BalanceDelta delta = new BalanceDelta(new BalanceKey(event.customerId(), event.assetName()),
+                        Money.of(event.size()), Money.of(event.usableSize()));
+                replay.merge(delta.key(), delta, BalanceDelta::plus);
+                replayed[0]++;
+            }
+        });
+
+        long sequence = Math.max(checkpoint, committed.lastEntry().getValue());
+        writeBatch(replay.values(), committed.keySet(), sequence);
+        lastCommittedSequence = sequence;
+        log.warn("Recovered {} unflushed balance delta(s) from {} committed journal record(s) up to sequence {}",
+                replayed[0], committed.size(), sequence);
+    }
+
+    @Override
+    public Optional<Balance> find(Long customerId, String assetName) {
+        return lookup(new BalanceKey(customerId, assetName)).map(this::visible);
+    }
+
+    @Override
+    public BigDecimal getUsableBalance(Long customerId, String assetName) {
+        return visible(entry(customerId, assetName)).usableSize();
+    }
+
+    @Override
+    public void reserve(Long customerId, String assetName, Money amount) {
+        if (!change(entry(customerId, assetName), Money.ZERO, amount.negate(), true, false)) {
+            throw new InsufficientAssetException("Insufficient " + assetName + " balance");
+        }
+    }
+
+    @Override
+    public void release(Long customerId, String assetName, Money amount) {
+        change(entry(customerId, assetName), Money.ZERO, amount, false, false);
+    }
+
+    @Override
+    public void setUsableBalance(Long customerId, String assetName, Money usableSize) {
+        LedgerEntry entry = entry(customerId, assetName);
+        change(entry, Money.ZERO, usableSize.minus(Money.of(visible(entry).usableSize())), false, false);
+    }
+
+    /**
+     * A missing asset row is inserted before its entry is published, so the mapping function
+     * never blocks on JDBC and a rolled back insert leaves no entry behind
+     */
+    @Override
+    public void adjust(Customer customer, String assetName, Money sizeDelta, Money usableDelta) {
+        BalanceKey key = new BalanceKey(customer.getId(), assetName);
+        LedgerEntry entry = lookup(key).orElse(null);
+        boolean created = false;
+        if (entry == null) {
+            assetRepository.save(Asset.builder()
+                    .customer(customer)
+                    .assetName(assetName)
+                    .size(BigDecimal.ZERO)
+                    .usableSize(BigDecimal.ZERO)
+                    .build());
+            LedgerEntry fresh = new LedgerEntry(key, 0, 0);
+            LedgerEntry existing = entries.putIfAbsent(key, fresh);
+            created = existing == null;
+            entry = created ? fresh : existing;
+        }
+
+        change(entry, sizeDelta, usableDelta, false, created);
+    }
+
+    /**
+     * Writes all committed deltas to the assets table in one JDBC batch
+     */
+    @Scheduled(fixedDelayString = "${brokerage.ledger.flush-interval-ms:50}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<BalanceKey, BalanceDelta> batch;
+            List<Long> records;
+            long sequence;
+            commitLock.lock();
+            try {
+                if (unflushed.isEmpty() && unflushedRecords.isEmpty()) {
+                    return;
+                }
+                batch = unflushed;
+                records = unflushedRecords;
+                sequence = lastCommittedSequence;
+                unflushed = new LinkedHashMap<>();
+                unflushedRecords = new ArrayList<>();
+            } finally {
+                commitLock.unlock();
+            }
+
+            try {
+                writeBatch(batch.values(), records, sequence);
+            } catch (RuntimeException e) {
+                commitLock.lock();
+                try {
+                    batch.forEach((key, delta) -> unflushed.merge(key, delta, (pending, failed) -> failed.plus(pending)));
+                    unflushedRecords.addAll(records);
+                } finally {
+                    commitLock.unlock();
+                }
+                log.error("Balance write-behind flush failed, {} delta(s) kept for retry: {}", batch.size(), e.getMessage());
+                return;
+            }
+
+            log.debug("Flushed {} balance delta(s) up to journal sequence {}", batch.size(), sequence);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Evicts the entries that are idle, held by no transaction and fully flushed. Runs under
+     * the flush lock, so no batch is in flight, and checks each candidate under the commit
+     * lock, so no delta for it is being published meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${brokerage.ledger.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMs;
+        int evicted = 0;
+        flushLock.lock();
+        try {
+            for (LedgerEntry entry : entries.values()) {
+                if (!entry.isIdleSince(cutoff)) {
+                    continue;
+                }
+                commitLock.lock();
+                try {
+                    if (!unflushed.containsKey(entry.key) && entry.evictIfIdleSince(cutoff)) {
+                        entries.remove(entry.key, entry);
+                        evicted++;
+                    }
+                } finally {
+                    commitLock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        if (evicted > 0) {
+            log.debug("Evicted {} idle balance entr(ies), {} left", evicted, entries.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Applies the deltas and unregisters their journal records in the same transaction
+     */
+    private void writeBatch(Collection<BalanceDelta> deltas, Collection<Long> records, long sequence) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = deltas.stream()
+                .map(delta -> new Object[]{
+                        delta.sizeDelta().toBigDecimal(), delta.usableDelta().toBigDecimal(), now,
+                        delta.key().customerId(), delta.key().assetName()})
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+            jdbcTemplate.batchUpdate(DELETE_COMMIT_SQL, records.stream().map(first -> new Object[]{first}).toList());
+            jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, sequence);
+        });
+    }
+
+    private long readCheckpoint() {
+        Long sequence = jdbcTemplate.queryForObject(SELECT_CHECKPOINT_SQL, Long.class);
+        return sequence == null ? 0 : sequence;
+    }
+
+    private LedgerEntry entry(Long customerId, String assetName) {
+        return lookup(new BalanceKey(customerId, assetName))
+                .orElseThrow(() -> new AssetNotFoundException(assetName + " asset not found"));
+    }
+
+    private Optional<LedgerEntry> lookup(BalanceKey key) {
+        LedgerEntry entry = entries.get(key);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+
+        return assetRepository.findByCustomerIdAndAssetName(key.customerId(), key.assetName())
+                .map(asset -> entries.computeIfAbsent(key,
+                        k -> new LedgerEntry(k, Money.of(asset.getSize()).units(), Money.of(asset.getUsableSize()).units())));
+    }
+
+    /**
+     * The shared balance plus the credits the current transaction has not committed yet
+     */
+    private Balance visible(LedgerEntry entry) {
+        TransactionDeltas pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (TransactionDeltas) TransactionSynchronizationManager.getResource(this)
+                : null;
+        PendingBalance own = pending == null ? null : pending.balances.get(entry.key);
+        return own == null ? entry.snapshot(0, 0) : entry.snapshot(own.creditSize, own.creditUsable);
+    }
+
+    /**
+     * Applies the delta and records it for the journal and the write-behind. Returns false,
+     * changing nothing, when a reservation is not covered by the balance.
+     */
+    private boolean change(LedgerEntry entry, Money sizeDelta, Money usableDelta, boolean reservation, boolean created) {
+        BalanceDelta delta = new BalanceDelta(entry.key, sizeDelta, usableDelta);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            LedgerEntry held = hold(entry);
+            try {
+                if (!held.apply(sizeDelta.units(), usableDelta.units(), reservation)) {
+                    return false;
+                }
+                List<BalanceDelta> deltas = List.of(delta);
+                long last = journal(deltas);
+                publish(deltas, last - deltas.size() + 1, last);
+                return true;
+            } finally {
+                held.release();
+            }
+        }
+
+        TransactionDeltas pending = (TransactionDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new TransactionDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        if (!pending.apply(entry, delta, reservation)) {
+            return false;
+        }
+        if (created) {
+            pending.createdKeys.add(entry.key);
+        }
+        return true;
+    }
+
+    /**
+     * Holds the entry against eviction, swapping in the reloaded entry if it was just evicted
+     */
+    private LedgerEntry hold(LedgerEntry entry) {
+        BalanceKey key = entry.key;
+        while (!entry.hold()) {
+            entry = lookup(key).orElseThrow(() -> new AssetNotFoundException(key.assetName() + " asset not found"));
+        }
+        return entry;
+    }
+
+    /**
+     * Appends the deltas as one journal record and registers it in the current transaction,
+     * or on its own when there is none; returns the sequence of the last delta
+     */
+    private long journal(List<BalanceDelta> deltas) {
+        List<JournalEvent> events = deltas.stream()
+                .map(delta -> JournalEvent.balanceChanged(delta.key().customerId(), delta.key().assetName(),
+                        delta.sizeDelta().toBigDecimal(), delta.usableDelta().toBigDecimal(), true))
+                .toList();
+        long last = journal.append(events);
+        jdbcTemplate.update(INSERT_COMMIT_SQL, last - events.size() + 1, last);
+        return last;
+    }
+
+    private void publish(List<BalanceDelta> deltas, long firstSequence, long lastSequence) {
+        commitLock.lock();
+        try {
+            lastCommittedSequence = Math.max(lastCommittedSequence, lastSequence);
+            unflushedRecords.add(firstSequence);
+            deltas.forEach(delta -> unflushed.merge(delta.key(), delta, BalanceDelta::plus));
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private final class TransactionDeltas implements TransactionSynchronization {
+
+        private final List<BalanceDelta> deltas = new ArrayList<>();
+        private final Map<BalanceKey, PendingBalance> balances = new HashMap<>();
+        private final Set<BalanceKey> createdKeys = new HashSet<>();
+        private long lastSequence;
+
+        private boolean apply(LedgerEntry entry, BalanceDelta delta, boolean reservation) {
+            if (!balances.computeIfAbsent(entry.key, key -> new PendingBalance(hold(entry))).apply(delta, reservation)) {
+                return false;
+            }
+            deltas.add(delta);
+            return true;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!deltas.isEmpty()) {
+                lastSequence = journal(deltas);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(WriteBehindBalanceLedger.this);
+            if (status == STATUS_COMMITTED) {
+                balances.values().forEach(PendingBalance::commit);
+                if (!deltas.isEmpty()) {
+                    publish(deltas, lastSequence - deltas.size() + 1, lastSequence);
+                }
+            } else {
+                balances.values().forEach(PendingBalance::revert);
+                createdKeys.forEach(entries::remove);
+            }
+            balances.values().forEach(balance -> balance.entry.release());
+        }
+    }
+
+    /**
+     * One key's changes within a transaction: the debits already taken from the shared entry
+     * and the credits held back until commit. Debits are covered by pending credits first.
+     */
+    private static final class PendingBalance {
+
+        private final LedgerEntry entry;
+        private long takenSize;
+        private long takenUsable;
+        private long creditSize;
+        private long creditUsable;
+
+        private PendingBalance(LedgerEntry entry) {
+            this.entry = entry;
+        }
+
+        private boolean apply(BalanceDelta delta, boolean reservation) {
+            long size = Math.addExact(creditSize, delta.sizeDelta().units());
+            long usable = Math.addExact(creditUsable, delta.usableDelta().units());
+            long debitSize = Math.min(size, 0);
+            long debitUsable = Math.min(usable, 0);
+            if (!entry.apply(debitSize, debitUsable, reservation)) {
+                return false;
+            }
+            takenSize += debitSize;
+            takenUsable += debitUsable;
+            creditSize = Math.max(size, 0);
+            creditUsable = Math.max(usable, 0);
+            return true;
+        }
+
+        private void commit() {
+            entry.apply(creditSize, creditUsable, false);
+        }
+
+        /**
+         * Only gives back what was taken, so it never drives the shared balance below zero
+         */
+        private void revert() {
+            entry.apply(-takenSize, -takenUsable, false);
+        }
+    }
+
+    /**
+     * Sizes are {@link Money} units, so checks and updates allocate nothing. Changes are only
+     * applied while the entry is held, and an evicted entry can no longer be held.
+     */
+    private static final class LedgerEntry {
+
+        private final BalanceKey key;
+        private long size;
+        private long usableSize;
+        private int holders;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean evicted;
+
+        private LedgerEntry(BalanceKey key, long size, long usableSize) {
+            this.key = key;
+            this.size = size;
+            this.usableSize = usableSize;
+        }
+
+        synchronized boolean hold() {
+            if (evicted) {
+                return false;
+            }
+            holders++;
+            lastUsed = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized void release() {
+            holders--;
+            lastUsed = System.currentTimeMillis();
+        }
+
+        synchronized boolean isIdleSince(long cutoff) {
+            return holders == 0 && lastUsed <= cutoff;
+        }
+
+        synchronized boolean evictIfIdleSince(long cutoff) {
+            if (evicted || !isIdleSince(cutoff)) {
+                return false;
+            }
+            evicted = true;
+            return true;
+        }
+
+        synchronized Balance snapshot(long pendingSize, long pendingUsable) {
+            return new Balance(BigDecimal.valueOf(Math.addExact(size, pendingSize), Money.SCALE),
+                    BigDecimal.valueOf(Math.addExact(usableSize, pendingUsable), Money.SCALE));
+        }
+
+        /**
+         * A reservation is rejected, changing nothing, when the usable size does not cover it
+         */
+        synchronized boolean apply(long sizeDelta, long usableDelta, boolean reservation) {
+            if (reservation && usableSize + usableDelta < 0) {
+                return false;
+            }
+            long newUsableSize = Math.addExact(usableSize, usableDelta);
+            size = Math.addExact(size, sizeDelta);
+            usableSize = newUsableSize;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.tr.ing.brokerage.mapper;
+
+import com.tr.ing.brokerage.dto.AssetDTO;
+import com.tr.ing.brokerage.entity.Asset;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface AssetMapper {
+
+    @Mapping(target = "customerId", source = "customer.id")
+    AssetDTO toDto(Asset asset);
+
+    /**
+     * The customer is not resolved here, callers attach the managed entity
+     */
+    @Mapping(target = "customer", ignore = true)
+    Asset toEntity(AssetDTO assetDTO);
+
+    @Mapping(target = "customer", ignore = true)
+    void updateEntity(AssetDTO assetDTO, @MappingTarget Asset asset);
+}
@@ -0,0 +1,22 @@
+package com.tr.ing.brokerage.mapper;
+
+import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.entity.Customer;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(config = EntityMapperConfig.class, uses = {AssetMapper.class, OrderMapper.class})
+public interface CustomerMapper {
+
+    CustomerDTO toDto(Customer customer);
+
+    @Mapping(target = "assets", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "isDeleted", source = "isDeleted", defaultValue = "false")
+    Customer toEntity(CustomerDTO customerDTO);
+
+    @Mapping(target = "assets", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    void updateEntity(CustomerDTO customerDTO, @MappingTarget Customer customer);
+}
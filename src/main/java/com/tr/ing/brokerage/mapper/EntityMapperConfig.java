@@ -0,0 +1,21 @@
+package com.tr.ing.brokerage.mapper;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings of the generated entity/DTO mappers. Lombok builders are bypassed so
+ * that inherited {@code BaseEntity} fields such as the id are mapped as well, and
+ * updates onto an existing entity leave its fields alone where the DTO has no value.
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE
+)
+public interface EntityMapperConfig {
+}
@@ -0,0 +1,23 @@
+package com.tr.ing.brokerage.mapper;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.entity.Order;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface OrderMapper {
+
+    @Mapping(target = "customerId", source = "customer.id")
+    OrderDTO toDto(Order order);
+
+    /**
+     * The customer is not resolved here, callers attach the managed entity
+     */
+    @Mapping(target = "customer", ignore = true)
+    Order toEntity(OrderDTO orderDTO);
+
+    @Mapping(target = "customer", ignore = true)
+    void updateEntity(OrderDTO orderDTO, @MappingTarget Order order);
+}
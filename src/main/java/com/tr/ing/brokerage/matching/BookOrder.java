@@ -0,0 +1,53 @@
+package com.tr.ing.brokerage.matching;
+
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.money.Money;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Resting order entry kept in an {@link OrderBook} price level
+ */
+@Getter
+public class BookOrder {
+
+    private final Long orderId;
+    private final Long customerId;
+    private final Side side;
+    private final Money price;
+    private Money remaining;
+    private boolean canceled;
+
+    public BookOrder(Long orderId, Long customerId, Side side, Money price, Money remaining) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.price = price;
+        this.remaining = remaining;
+    }
+
+    public static BookOrder of(Order order) {
+        BigDecimal filled = order.getFilledSize() == null ? BigDecimal.ZERO : order.getFilledSize();
+        return new BookOrder(
+                order.getId(),
+                order.getCustomer().getId(),
+                order.getSide(),
+                Money.of(order.getPrice()),
+                Money.of(order.getSize().subtract(filled))
+        );
+    }
+
+    public boolean isFilled() {
+        return remaining.signum() <= 0;
+    }
+
+    void reduce(Money quantity) {
+        remaining = remaining.minus(quantity);
+    }
+
+    void setCanceled(boolean canceled) {
+        this.canceled = canceled;
+    }
+}
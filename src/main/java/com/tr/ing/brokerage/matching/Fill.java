@@ -0,0 +1,22 @@
+package com.tr.ing.brokerage.matching;
+
+import com.tr.ing.brokerage.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Single execution between a buy and a sell order at the resting order's price
+ */
+@Getter
+@AllArgsConstructor
+public class Fill {
+
+    private final String assetName;
+    private final Long buyOrderId;
+    private final Long buyCustomerId;
+    private final Money buyLimitPrice;
+    private final Long sellOrderId;
+    private final Long sellCustomerId;
+    private final Money price;
+    private final Money quantity;
+}
@@ -0,0 +1,278 @@
+package com.tr.ing.brokerage.matching;
+
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.money.Money;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Price-time priority limit order book for a single asset.
+ * Bids are kept best (highest) price first, asks best (lowest) price first,
+ * and each price level is a FIFO queue keyed by fixed-point {@link Money}. Guarded by a lock instead of a monitor so that
+ * contending virtual threads park instead of pinning their carrier.
+ */
+public class OrderBook {
+
+    private final String assetName;
+    private final NavigableMap<Money, Deque<BookOrder>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Money, Deque<BookOrder>> asks = new TreeMap<>();
+    private final Map<Long, BookOrder> ordersById = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    /**
+     * Matches the incoming order against the opposite side and rests any remainder
+     */
+    public List<Fill> match(BookOrder incoming) {
+        lock.lock();
+        try {
+            List<Fill> fills = take(incoming, new ArrayList<>());
+            if (!incoming.isFilled()) {
+                rest(incoming);
+            }
+            return fills;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Matches the incoming order against the opposite side without resting any remainder.
+     * The resting order of each fill is added to {@code makers}, so that a fill which does not
+     * commit can be {@link #refill refilled}.
+     */
+    public List<Fill> take(BookOrder incoming, List<BookOrder> makers) {
+        lock.lock();
+        try {
+            List<Fill> fills = new ArrayList<>();
+            NavigableMap<Money, Deque<BookOrder>> opposite = oppositeOf(incoming.getSide());
+
+            while (!incoming.isFilled() && !opposite.isEmpty()) {
+                Map.Entry<Money, Deque<BookOrder>> best = opposite.firstEntry();
+                if (!crosses(incoming, best.getKey())) {
+                    break;
+                }
+
+                Deque<BookOrder> level = best.getValue();
+                BookOrder resting = level.peekFirst();
+                Money quantity = incoming.getRemaining().min(resting.getRemaining());
+
+                incoming.reduce(quantity);
+                resting.reduce(quantity);
+                fills.add(toFill(incoming, resting, quantity));
+                makers.add(resting);
+
+                if (resting.isFilled()) {
+                    level.pollFirst();
+                    ordersById.remove(resting.getOrderId());
+                    if (level.isEmpty()) {
+                        opposite.pollFirstEntry();
+                    }
+                }
+            }
+            return fills;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rests the order unless it crosses the best opposite price. Returns false, leaving the
+     * book unchanged, when it crosses and has to be matched first.
+     */
+    public boolean restIfNotCrossing(BookOrder order) {
+        lock.lock();
+        try {
+            NavigableMap<Money, Deque<BookOrder>> opposite = oppositeOf(order.getSide());
+            if (!opposite.isEmpty() && crosses(order, opposite.firstKey())) {
+                return false;
+            }
+            if (!order.isFilled()) {
+                rest(order);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives a resting order back the quantity of a fill that did not commit, and puts it
+     * back at its time priority if that fill took it off the book. Canceled orders stay off.
+     */
+    public void refill(BookOrder order, Money quantity) {
+        lock.lock();
+        try {
+            order.reduce(quantity.negate());
+            if (!order.isCanceled() && !ordersById.containsKey(order.getOrderId())) {
+                restInPriority(order);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts back an order whose cancel did not commit, at its time priority
+     */
+    public void reinstate(BookOrder order) {
+        lock.lock();
+        try {
+            order.setCanceled(false);
+            if (!order.isFilled() && !ordersById.containsKey(order.getOrderId())) {
+                restInPriority(order);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rests an order without matching, used when rebuilding the book
+     */
+    public void add(BookOrder order) {
+        lock.lock();
+        try {
+            if (!order.isFilled()) {
+                rest(order);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a canceled order off the book
+     */
+    public Optional<BookOrder> remove(Long orderId) {
+        lock.lock();
+        try {
+            BookOrder order = ordersById.remove(orderId);
+            if (order == null) {
+                return Optional.empty();
+            }
+
+            order.setCanceled(true);
+
+            NavigableMap<Money, Deque<BookOrder>> side = sideOf(order.getSide());
+            Deque<BookOrder> level = side.get(order.getPrice());
+            level.remove(order);
+            if (level.isEmpty()) {
+                side.remove(order.getPrice());
+            }
+            return Optional.of(order);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the book content, used to resynchronise with persisted state
+     */
+    public void reset(Collection<BookOrder> orders) {
+        lock.lock();
+        try {
+            bids.clear();
+            asks.clear();
+            ordersById.clear();
+            orders.forEach(this::add);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Money> bestBid() {
+        lock.lock();
+        try {
+            return bids.isEmpty() ? Optional.empty() : Optional.of(bids.firstKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Money> bestAsk() {
+        lock.lock();
+        try {
+            return asks.isEmpty() ? Optional.empty() : Optional.of(asks.firstKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(Long orderId) {
+        lock.lock();
+        try {
+            return ordersById.containsKey(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return ordersById.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rest(BookOrder order) {
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPrice(), price -> new ArrayDeque<>())
+                .addLast(order);
+        ordersById.put(order.getOrderId(), order);
+    }
+
+    /**
+     * Order ids follow arrival, so an order put back is queued behind the lower ids of its level
+     */
+    private void restInPriority(BookOrder order) {
+        Deque<BookOrder> level = sideOf(order.getSide()).computeIfAbsent(order.getPrice(), price -> new ArrayDeque<>());
+        List<BookOrder> queued = new ArrayList<>(level);
+        int position = 0;
+        while (position < queued.size() && queued.get(position).getOrderId() < order.getOrderId()) {
+            position++;
+        }
+        queued.add(position, order);
+        level.clear();
+        level.addAll(queued);
+        ordersById.put(order.getOrderId(), order);
+    }
+
+    private NavigableMap<Money, Deque<BookOrder>> oppositeOf(Side side) {
+        return side == Side.BUY ? asks : bids;
+    }
+
+    private NavigableMap<Money, Deque<BookOrder>> sideOf(Side side) {
+        return side == Side.BUY ? bids : asks;
+    }
+
+    private boolean crosses(BookOrder incoming, Money restingPrice) {
+        int comparison = incoming.getPrice().compareTo(restingPrice);
+        return incoming.getSide() == Side.BUY ? comparison >= 0 : comparison <= 0;
+    }
+
+    private Fill toFill(BookOrder incoming, BookOrder resting, Money quantity) {
+        BookOrder buy = incoming.getSide() == Side.BUY ? incoming : resting;
+        BookOrder sell = incoming.getSide() == Side.BUY ? resting : incoming;
+        return new Fill(
+                assetName,
+                buy.getOrderId(),
+                buy.getCustomerId(),
+                buy.getPrice(),
+                sell.getOrderId(),
+                sell.getCustomerId(),
+                resting.getPrice(),
+                quantity
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package com.tr.ing.brokerage.metrics;
+
+import com.tr.ing.brokerage.enums.Side;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+import static com.tr.ing.brokerage.constant.Assets.TRY_ASSETS;
+
+/**
+ * Order lifecycle and balance meters. Tags are bounded on purpose: the side, the asset type
+ * (cash for TRY, security for everything else, never the asset name) and the exception class.
+ */
+@Component
+public class BrokerageMetrics {
+
+    public static final String ORDERS = "brokerage.orders";
+    public static final String BALANCE_OPERATIONS = "brokerage.balance.operations";
+    public static final String INSUFFICIENT_BALANCE = "brokerage.balance.insufficient";
+    public static final String OPTIMISTIC_LOCK_CONFLICTS = "brokerage.optimistic.lock.conflicts";
+    public static final String RATE_LIMITED = "brokerage.rate.limited";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    public BrokerageMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times an order operation such as create or cancel, tagged with its outcome
+     */
+    public <T> T timeOrder(String operation, Side side, Supplier<T> action) {
+        return time(Timer.builder(ORDERS)
+                .description("Order operations")
+                .tag("operation", operation)
+                .tag("side", side == null ? NONE : side.name()), action);
+    }
+
+    public void timeOrder(String operation, Side side, Runnable action) {
+        timeOrder(operation, side, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times one balance step: reserve, release, settle and so on
+     */
+    public <T> T timeBalance(String operation, String assetName, Supplier<T> action) {
+        return time(Timer.builder(BALANCE_OPERATIONS)
+                .description("Balance reservation, release and settlement steps")
+                .tag("operation", operation)
+                .tag("asset.type", assetType(assetName)), action);
+    }
+
+    public void timeBalance(String operation, String assetName, Runnable action) {
+        timeBalance(operation, assetName, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void insufficientBalance(String operation, String assetName) {
+        Counter.builder(INSUFFICIENT_BALANCE)
+                .description("Orders and balance updates rejected for insufficient balance")
+                .tag("operation", operation)
+                .tag("asset.type", assetType(assetName))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a version conflict on an entity; {@code outcome} tells whether it was retried
+     * or reached the client
+     */
+    public void optimisticLockConflict(Exception conflict, String outcome) {
+        String entity = conflict instanceof ObjectOptimisticLockingFailureException objectConflict
+                && objectConflict.getPersistentClassName() != null
+                ? simpleName(objectConflict.getPersistentClassName())
+                : "unknown";
+        Counter.builder(OPTIMISTIC_LOCK_CONFLICTS)
+                .description("Optimistic lock conflicts on versioned entities")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void rateLimited(String group) {
+        Counter.builder(RATE_LIMITED)
+                .description("Requests rejected by the per-principal rate limiter")
+                .tag("group", group)
+                .register(registry)
+                .increment();
+    }
+
+    private <T> T time(Timer.Builder timer, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = NONE;
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer.tag("exception", exception).register(registry));
+        }
+    }
+
+    private static String assetType(String assetName) {
+        return TRY_ASSETS.equals(assetName) ? "cash" : "security";
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
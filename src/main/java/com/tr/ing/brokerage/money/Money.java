@@ -0,0 +1,93 @@
+package com.tr.ing.brokerage.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount with the four decimals of the amount columns, held as a scaled long.
+ * Used for balance and matching arithmetic on the order path in place of BigDecimal.
+ * Arithmetic is overflow-checked and throws {@link ArithmeticException} instead of
+ * wrapping; products are rounded half-up to four decimals.
+ */
+public record Money(long units) implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final Money ZERO = new Money(0);
+    public static final Money MAX = new Money(Long.MAX_VALUE);
+
+    private static final long UNIT = 10_000L;
+
+    /**
+     * Rounds half-up to four decimals; throws when the value does not fit
+     */
+    public static Money of(BigDecimal value) {
+        return new Money(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Whether the value, rounded to four decimals, is within the range of {@link #of(BigDecimal)}
+     */
+    public static boolean fits(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    public static Money of(long wholeUnits) {
+        return new Money(Math.multiplyExact(wholeUnits, UNIT));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(units));
+    }
+
+    /**
+     * Multiplies in long arithmetic while the unscaled product fits in 64 bits and
+     * falls back to BigDecimal otherwise
+     */
+    public Money times(Money other) {
+        long high = Math.multiplyHigh(units, other.units);
+        long low = units * other.units;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return new Money(divideHalfUp(low));
+        }
+        return of(toBigDecimal().multiply(other.toBigDecimal()));
+    }
+
+    public Money min(Money other) {
+        return units <= other.units ? this : other;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static long divideHalfUp(long scaledProduct) {
+        long quotient = scaledProduct / UNIT;
+        long remainder = scaledProduct % UNIT;
+        if (Math.abs(remainder) * 2 >= UNIT) {
+            quotient += Long.signum(scaledProduct);
+        }
+        return quotient;
+    }
+}
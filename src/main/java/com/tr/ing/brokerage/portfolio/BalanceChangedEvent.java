@@ -0,0 +1,8 @@
+package com.tr.ing.brokerage.portfolio;
+
+/**
+ * Published whenever a customer's asset balance changes. It only names the asset; listeners
+ * read the resulting balance from the balance store.
+ */
+public record BalanceChangedEvent(Long customerId, String assetName) {
+}
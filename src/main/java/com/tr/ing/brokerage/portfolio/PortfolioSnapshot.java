@@ -0,0 +1,135 @@
+package com.tr.ing.brokerage.portfolio;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tr.ing.brokerage.dto.PortfolioAssetDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.exception.CustomerNotFoundException;
+import com.tr.ing.brokerage.ledger.Balance;
+import com.tr.ing.brokerage.ledger.BalanceStore;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import com.tr.ing.brokerage.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of customer portfolios. A customer is loaded from the assets table on first
+ * read; after that each {@link BalanceChangedEvent} refreshes only the asset it names, so reads
+ * never go back to the database.
+ */
+@Slf4j
+@Component
+public class PortfolioSnapshot {
+
+    private final AssetRepository assetRepository;
+    private final CustomerRepository customerRepository;
+    private final BalanceStore balanceStore;
+    private final Cache<Long, CustomerPortfolio> portfolios;
+
+    public PortfolioSnapshot(AssetRepository assetRepository,
+                             CustomerRepository customerRepository,
+                             BalanceStore balanceStore,
+                             @Value("${brokerage.portfolio.cache.max-size:10000}") long maxSize) {
+        this.assetRepository = assetRepository;
+        this.customerRepository = customerRepository;
+        this.balanceStore = balanceStore;
+        this.portfolios = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public PortfolioDTO get(Long customerId) {
+        CustomerPortfolio portfolio = portfolios.get(customerId, CustomerPortfolio::new);
+        portfolio.lock.lock();
+        try {
+            if (!portfolio.loaded) {
+                load(portfolio);
+            }
+            return portfolio.toDto();
+        } finally {
+            portfolio.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs once the change has committed or rolled back, so the balance read here is what
+     * the transaction left behind. Customers nobody has read yet are skipped.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        CustomerPortfolio portfolio = portfolios.getIfPresent(event.customerId());
+        if (portfolio == null) {
+            return;
+        }
+
+        portfolio.lock.lock();
+        try {
+            if (portfolio.loaded) {
+                refresh(portfolio, event.assetName());
+            }
+        } catch (RuntimeException e) {
+            portfolios.invalidate(event.customerId());
+            log.warn("Dropped portfolio snapshot of customer [ID: {}] after a failed refresh: {}",
+                    event.customerId(), e.getMessage());
+        } finally {
+            portfolio.lock.unlock();
+        }
+    }
+
+    private void load(CustomerPortfolio portfolio) {
+        if (!customerRepository.existsById(portfolio.customerId)) {
+            portfolios.invalidate(portfolio.customerId);
+            throw new CustomerNotFoundException("Customer not found with id: " + portfolio.customerId);
+        }
+
+        for (Asset asset : assetRepository.findByCustomerId(portfolio.customerId)) {
+            Balance balance = balanceStore.find(portfolio.customerId, asset.getAssetName())
+                    .orElse(new Balance(asset.getSize(), asset.getUsableSize()));
+            portfolio.balances.put(asset.getAssetName(), balance);
+        }
+        portfolio.loaded = true;
+        log.debug("Loaded portfolio snapshot of customer [ID: {}] with {} asset(s)",
+                portfolio.customerId, portfolio.balances.size());
+    }
+
+    private void refresh(CustomerPortfolio portfolio, String assetName) {
+        balanceStore.find(portfolio.customerId, assetName)
+                .ifPresentOrElse(balance -> portfolio.balances.put(assetName, balance),
+                        () -> portfolio.balances.remove(assetName));
+    }
+
+    private static final class CustomerPortfolio {
+
+        private final Long customerId;
+        private final Lock lock = new ReentrantLock();
+        private final Map<String, Balance> balances = new TreeMap<>();
+        private boolean loaded;
+
+        private CustomerPortfolio(Long customerId) {
+            this.customerId = customerId;
+        }
+
+        private PortfolioDTO toDto() {
+            return PortfolioDTO.builder()
+                    .customerId(customerId)
+                    .assets(balances.entrySet().stream()
+                            .map(entry -> PortfolioAssetDTO.builder()
+                                    .assetName(entry.getKey())
+                                    .size(entry.getValue().size())
+                                    .usableSize(entry.getValue().usableSize())
+                                    .reservedSize(entry.getValue().size().subtract(entry.getValue().usableSize()))
+                                    .build())
+                            .toList())
+                    .build();
+        }
+    }
+}
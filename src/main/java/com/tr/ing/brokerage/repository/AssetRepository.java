@@ -1,10 +1,15 @@
 package com.tr.ing.brokerage.repository;
 
 import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.ledger.Balance;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,11 +17,44 @@ import java.util.Optional;
 public interface AssetRepository extends JpaRepository<Asset, Long> {
 
     @EntityGraph(attributePaths = {"customer"})
-    List<Asset> findByCustomerId(Long customerId);
+    @Query("select a from Asset a where a.customer.id = :customerId")
+    List<Asset> findByCustomerId(@Param("customerId") Long customerId);
 
+    /**
+     * Filters on the foreign key column itself so the (customer_id, asset_name) index applies
+     */
     @EntityGraph(attributePaths = {"customer"})
-    Optional<Asset> findByCustomerIdAndAssetName(Long customerId, String assetName);
+    @Query("select a from Asset a where a.customer.id = :customerId and a.assetName = :assetName")
+    Optional<Asset> findByCustomerIdAndAssetName(@Param("customerId") Long customerId, @Param("assetName") String assetName);
 
-    boolean existsByCustomerIdAndAssetName(Long customerId, String assetName);
+    @Query("select count(a) > 0 from Asset a where a.customer.id = :customerId and a.assetName = :assetName")
+    boolean existsByCustomerIdAndAssetName(@Param("customerId") Long customerId, @Param("assetName") String assetName);
+
+    @Query("select new com.tr.ing.brokerage.ledger.Balance(a.size, a.usableSize) from Asset a " +
+            "where a.customer.id = :customerId and a.assetName = :assetName")
+    Optional<Balance> findBalance(@Param("customerId") Long customerId, @Param("assetName") String assetName);
+
+    /**
+     * Debits the usable size only if it covers the amount; returns 0 when it does not or the asset is missing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Asset a set a.usableSize = a.usableSize - :amount, a.version = a.version + 1, " +
+            "a.updatedAt = local datetime " +
+            "where a.customer.id = :customerId and a.assetName = :assetName and a.usableSize >= :amount")
+    int reserveUsableSize(@Param("customerId") Long customerId,
+                          @Param("assetName") String assetName,
+                          @Param("amount") BigDecimal amount);
+
+    /**
+     * Applies size and usable size deltas in place; returns 0 when the asset is missing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Asset a set a.size = a.size + :sizeDelta, a.usableSize = a.usableSize + :usableDelta, " +
+            "a.version = a.version + 1, a.updatedAt = local datetime " +
+            "where a.customer.id = :customerId and a.assetName = :assetName")
+    int adjustBalance(@Param("customerId") Long customerId,
+                      @Param("assetName") String assetName,
+                      @Param("sizeDelta") BigDecimal sizeDelta,
+                      @Param("usableDelta") BigDecimal usableDelta);
 
 }
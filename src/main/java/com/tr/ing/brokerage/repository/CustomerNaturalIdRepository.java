@@ -0,0 +1,14 @@
+package com.tr.ing.brokerage.repository;
+
+import com.tr.ing.brokerage.entity.Customer;
+
+import java.util.Optional;
+
+public interface CustomerNaturalIdRepository {
+
+    /**
+     * Loads by the {@code customerId} natural id, so repeated lookups are served from the
+     * natural-id and entity caches instead of a query
+     */
+    Optional<Customer> findByCustomerId(String customerId);
+}
@@ -5,12 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
-
-    Optional<Customer> findByCustomerId(String customerId);
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerNaturalIdRepository {
 
     boolean existsByCustomerId(String customerId);
 
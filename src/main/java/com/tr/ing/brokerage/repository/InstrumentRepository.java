@@ -0,0 +1,32 @@
+package com.tr.ing.brokerage.repository;
+
+import com.tr.ing.brokerage.enums.TradingStatus;
+import com.tr.ing.brokerage.instrument.Instrument;
+import com.tr.ing.brokerage.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads the instrument reference table; only used to build the in-memory catalog
+ */
+@Repository
+@RequiredArgsConstructor
+public class InstrumentRepository {
+
+    private static final String SELECT_INSTRUMENTS_SQL =
+            "SELECT id, symbol, tick_size, lot_size, status FROM instruments ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Instrument> findAll() {
+        return jdbcTemplate.query(SELECT_INSTRUMENTS_SQL, (resultSet, rowNum) -> new Instrument(
+                resultSet.getInt("id"),
+                resultSet.getString("symbol").intern(),
+                Money.of(resultSet.getBigDecimal("tick_size")),
+                Money.of(resultSet.getBigDecimal("lot_size")),
+                TradingStatus.valueOf(resultSet.getString("status"))));
+    }
+}
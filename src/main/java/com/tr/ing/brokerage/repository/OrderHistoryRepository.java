@@ -0,0 +1,61 @@
+package com.tr.ing.brokerage.repository;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Reads order history straight from a forward-only JDBC cursor, one row at a time,
+ * without loading entities into the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderHistoryRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_HISTORY_SQL =
+            "SELECT id, customer_id, asset_name, side, size, price, filled_size, status, create_date, client_order_id FROM orders " +
+            "WHERE customer_id = ? AND create_date BETWEEN ? AND ? ORDER BY create_date DESC, id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachOrder(Long customerId, LocalDateTime startDate, LocalDateTime endDate, Consumer<OrderDTO> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_HISTORY_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, customerId);
+            statement.setTimestamp(2, Timestamp.valueOf(startDate));
+            statement.setTimestamp(3, Timestamp.valueOf(endDate));
+            return statement;
+        }, resultSet -> {
+            consumer.accept(toDto(resultSet));
+        });
+    }
+
+    private static OrderDTO toDto(ResultSet resultSet) throws SQLException {
+        return OrderDTO.builder()
+                .id(resultSet.getLong("id"))
+                .customerId(resultSet.getLong("customer_id"))
+                .assetName(resultSet.getString("asset_name"))
+                .side(Side.valueOf(resultSet.getString("side")))
+                .size(resultSet.getBigDecimal("size"))
+                .price(resultSet.getBigDecimal("price"))
+                .filledSize(resultSet.getBigDecimal("filled_size"))
+                .status(Status.valueOf(resultSet.getString("status")))
+                .createDate(resultSet.getTimestamp("create_date").toLocalDateTime())
+                .clientOrderId(resultSet.getString("client_order_id"))
+                .build();
+    }
+}
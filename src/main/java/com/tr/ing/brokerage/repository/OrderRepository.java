@@ -1,11 +1,18 @@
 package com.tr.ing.brokerage.repository;
 
 import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +22,89 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = {"customer"})
     Optional<Order> findByCustomerId(Long id);
 
+    /**
+     * Filters on the foreign key column itself; the derived query put the predicate on the fetched customer join
+     */
     @EntityGraph(attributePaths = {"customer"})
-    List<Order> findByCustomerIdAndCreateDateBetween(Long customerId, LocalDateTime startDate, LocalDateTime endDate);
+    @Query("select o from Order o where o.customer.id = :customerId and o.createDate between :startDate and :endDate")
+    List<Order> findByCustomerIdAndCreateDateBetween(@Param("customerId") Long customerId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
 
     @EntityGraph(attributePaths = {"customer"})
     Optional<Order> findByIdAndCustomerId(Long id, Long customerId);
 
+    @Query("select o from Order o where o.customer.id = :customerId and o.clientOrderId = :clientOrderId")
+    Optional<Order> findByCustomerIdAndClientOrderId(@Param("customerId") Long customerId,
+                                                     @Param("clientOrderId") String clientOrderId);
+
+    @Query("select o from Order o where o.customer.id = :customerId and o.clientOrderId in :clientOrderIds")
+    List<Order> findByCustomerIdAndClientOrderIdIn(@Param("customerId") Long customerId,
+                                                   @Param("clientOrderIds") Collection<String> clientOrderIds);
+
+    @Query("select o.customer.id from Order o where o.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
+
+    /**
+     * First page of a customer's history, newest first
+     */
+    @Query("select o from Order o where o.customer.id = :customerId and o.createDate between :startDate and :endDate " +
+            "order by o.createDate desc, o.id desc")
+    List<Order> findHistoryPage(@Param("customerId") Long customerId,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                Limit limit);
+
+    /**
+     * Next page of a customer's history, seeking past the last {@code (createDate, id)} returned
+     */
+    @Query("select o from Order o where o.customer.id = :customerId and o.createDate between :startDate and :endDate " +
+            "and (o.createDate < :afterDate or (o.createDate = :afterDate and o.id < :afterId)) " +
+            "order by o.createDate desc, o.id desc")
+    List<Order> findHistoryPageAfter(@Param("customerId") Long customerId,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("afterDate") LocalDateTime afterDate,
+                                     @Param("afterId") Long afterId,
+                                     Limit limit);
+
+    @EntityGraph(attributePaths = {"customer"})
+    List<Order> findByStatusOrderByCreateDateAscIdAsc(Status status);
+
+    @EntityGraph(attributePaths = {"customer"})
+    List<Order> findByAssetNameAndStatusOrderByCreateDateAscIdAsc(String assetName, Status status);
+
+    /**
+     * Customers with orders in the given status on the asset, optionally on one side only
+     */
+    @Query("select distinct o.customer.id from Order o where o.status = :status " +
+            "and o.assetName = :assetName and (:side is null or o.side = :side)")
+    List<Long> findCustomerIdsByStatusAndAsset(@Param("status") Status status,
+                                               @Param("assetName") String assetName,
+                                               @Param("side") Side side);
+
+    /**
+     * Orders in the given status matching the optional filters; a null filter matches everything
+     */
+    @Query("select o from Order o where o.status = :status " +
+            "and (:customerId is null or o.customer.id = :customerId) " +
+            "and (:assetName is null or o.assetName = :assetName) " +
+            "and (:side is null or o.side = :side) " +
+            "order by o.id")
+    List<Order> findByStatusAndFilters(@Param("status") Status status,
+                                       @Param("customerId") Long customerId,
+                                       @Param("assetName") String assetName,
+                                       @Param("side") Side side);
+
+    /**
+     * Moves the orders still in {@code from} to {@code to} in one statement and returns how many
+     * moved. Bumps the version so a concurrent write of a loaded copy fails its optimistic check.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1, o.updatedAt = :now " +
+            "where o.id in :ids and o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("from") Status from,
+                     @Param("to") Status to,
+                     @Param("now") LocalDateTime now);
 }
@@ -2,6 +2,9 @@ package com.tr.ing.brokerage.repository;
 
 import com.tr.ing.brokerage.entity.Role;
 import com.tr.ing.brokerage.enums.RoleUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,5 +13,9 @@ import java.util.Optional;
 @Repository
 public interface RoleRepository extends CrudRepository<Role, Long> {
 
+    /**
+     * Served from the query cache; roles are reference data seeded by the migrations
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRoleUser(RoleUser roleUserName);
 }
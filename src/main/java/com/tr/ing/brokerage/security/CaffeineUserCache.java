@@ -0,0 +1,45 @@
+package com.tr.ing.brokerage.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded user-details cache for the login provider, so repeated logins skip the
+ * {@code users}/{@code user_roles} lookup. Entries expire after the configured TTL and are
+ * dropped when a user is registered. On a password mismatch the provider reloads the user
+ * from the database before rejecting, so a stale entry cannot lock anyone out.
+ */
+@Component
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> users;
+
+    public CaffeineUserCache(@Value("${brokerage.security.user-cache.max-size:10000}") long maxSize,
+                             @Value("${brokerage.security.user-cache.ttl:PT10M}") Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return username == null ? null : users.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+}
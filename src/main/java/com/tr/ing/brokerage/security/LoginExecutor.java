@@ -0,0 +1,47 @@
+package com.tr.ing.brokerage.security;
+
+import com.tr.ing.brokerage.exception.LoginCapacityExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool for password verification. BCrypt is deliberately slow, so logins run
+ * on a fixed number of threads behind a bounded queue instead of on request threads; when
+ * both are full the login is rejected at once and order endpoints keep their threads.
+ * The workers stay platform threads even in virtual-thread mode, as hashing is CPU bound.
+ */
+@Slf4j
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    public LoginExecutor(@Value("${brokerage.security.login.threads:0}") int threads,
+                         @Value("${brokerage.security.login.queue-capacity:256}") int queueCapacity) {
+        int count = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = Thread.ofPlatform().name("login-", 0).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(count, count, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Login executor with {} thread(s) and queue capacity {}", count, queueCapacity);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected, {} queued", executor.getQueue().size());
+            throw new LoginCapacityExceededException("Too many login attempts, please retry shortly");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,101 @@
+package com.tr.ing.brokerage.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tr.ing.brokerage.advice.ExceptionResponse;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.tr.ing.brokerage.constant.AppConstants.API_BASE_PATH;
+
+/**
+ * Applies the {@link RateLimiter} to authenticated order and asset requests, right after the
+ * JWT filter has resolved the principal. Anonymous requests pass through and are turned away
+ * by authorization instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ORDERS_PATH = "/" + API_BASE_PATH + "/orders";
+    private static final String CUSTOMERS_PATH = "/" + API_BASE_PATH + "/customers/";
+    private static final String ASSETS_SEGMENT = "/assets";
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final RateLimiter rateLimiter;
+    private final BrokerageMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        RateLimiter.Group group = groupOf(request.getRequestURI());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (group == null || authentication == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(authentication.getName(), group, isAdmin(authentication));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        metrics.rateLimited(group.name().toLowerCase());
+        if (log.isDebugEnabled()) {
+            log.debug("Rate limited {} on {} for {}s | Request: {}", authentication.getName(), group,
+                    retryAfterSeconds, request.getRequestURI());
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ExceptionResponse(LocalDateTime.now(), "Too many requests, retry in " + retryAfterSeconds + "s"));
+    }
+
+    private static RateLimiter.Group groupOf(String uri) {
+        if (uri.startsWith(ORDERS_PATH)) {
+            return RateLimiter.Group.ORDERS;
+        }
+        if (uri.startsWith(CUSTOMERS_PATH) && uri.indexOf(ASSETS_SEGMENT, CUSTOMERS_PATH.length()) > 0) {
+            return RateLimiter.Group.ASSETS;
+        }
+        return null;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ROLE_ADMIN.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
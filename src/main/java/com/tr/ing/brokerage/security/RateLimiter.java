@@ -0,0 +1,92 @@
+package com.tr.ing.brokerage.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-principal request limits for the API endpoint groups. Each principal has one token
+ * bucket per group, refilled at the rate configured for its role; a bucket holds the burst
+ * duration's worth of requests. Checks take no locks, and principals idle for longer than
+ * the idle timeout are dropped along with their buckets.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum Group {
+        ORDERS,
+        ASSETS
+    }
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final boolean enabled;
+    private final long[] userIntervals = new long[Group.values().length];
+    private final long[] adminIntervals = new long[Group.values().length];
+    private final long burstNanos;
+    private final Cache<String, TokenBucket[]> buckets;
+
+    public RateLimiter(@Value("${brokerage.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${brokerage.rate-limit.orders.user-per-second:20}") double ordersUserRate,
+                       @Value("${brokerage.rate-limit.orders.admin-per-second:200}") double ordersAdminRate,
+                       @Value("${brokerage.rate-limit.assets.user-per-second:10}") double assetsUserRate,
+                       @Value("${brokerage.rate-limit.assets.admin-per-second:100}") double assetsAdminRate,
+                       @Value("${brokerage.rate-limit.burst:PT2S}") Duration burst,
+                       @Value("${brokerage.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+                       @Value("${brokerage.rate-limit.max-principals:100000}") long maxPrincipals) {
+        this.enabled = enabled;
+        userIntervals[Group.ORDERS.ordinal()] = interval(ordersUserRate);
+        adminIntervals[Group.ORDERS.ordinal()] = interval(ordersAdminRate);
+        userIntervals[Group.ASSETS.ordinal()] = interval(assetsUserRate);
+        adminIntervals[Group.ASSETS.ordinal()] = interval(assetsAdminRate);
+        this.burstNanos = burst.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxPrincipals)
+                .expireAfterAccess(idleTimeout)
+                .build();
+
+        log.info("Rate limiter {} [orders: {}/s user, {}/s admin; assets: {}/s user, {}/s admin; burst: {}]",
+                enabled ? "enabled" : "disabled", ordersUserRate, ordersAdminRate, assetsUserRate, assetsAdminRate, burst);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes one request from the principal's bucket for the group, returning 0 when the
+     * request is admitted or the nanoseconds until it would be
+     */
+    public long tryAcquire(String principal, Group group, boolean admin) {
+        return tryAcquire(principal, group, admin, System.nanoTime());
+    }
+
+    long tryAcquire(String principal, Group group, boolean admin, long nowNanos) {
+        long interval = (admin ? adminIntervals : userIntervals)[group.ordinal()];
+        TokenBucket[] byGroup = buckets.getIfPresent(principal);
+        if (byGroup == null) {
+            byGroup = buckets.get(principal, key -> newBuckets(nowNanos));
+        }
+        return byGroup[group.ordinal()].tryAcquire(nowNanos, interval, Math.max(burstNanos, interval));
+    }
+
+    private static TokenBucket[] newBuckets(long nowNanos) {
+        TokenBucket[] byGroup = new TokenBucket[Group.values().length];
+        for (int i = 0; i < byGroup.length; i++) {
+            byGroup[i] = new TokenBucket(nowNanos);
+        }
+        return byGroup;
+    }
+
+    private static long interval(double perSecond) {
+        if (perSecond <= 0) {
+            throw new IllegalArgumentException("Rate limits must be positive: " + perSecond);
+        }
+        return Math.max(1, Math.round(NANOS_PER_SECOND / perSecond));
+    }
+}
@@ -0,0 +1,145 @@
+package com.tr.ing.brokerage.sequencer;
+
+import com.tr.ing.brokerage.exception.OrderQueueFullException;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer order intake. Work is routed to a shard by key and every shard is
+ * drained by exactly one thread through a bounded queue, so all balance mutations of
+ * a customer are applied sequentially instead of racing on the entity version.
+ */
+@Slf4j
+@Component
+public class OrderSequencer implements DisposableBean {
+
+    private final BrokerageMetrics metrics;
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final ThreadPoolExecutor[] shards;
+
+    public OrderSequencer(BrokerageMetrics metrics,
+                          @Value("${brokerage.sequencer.enabled:true}") boolean enabled,
+                          @Value("${brokerage.sequencer.shards:0}") int shardCount,
+                          @Value("${brokerage.sequencer.queue-capacity:1024}") int queueCapacity,
+                          @Value("${brokerage.sequencer.max-attempts:3}") int maxAttempts,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[enabled ? count : 0];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = newShard(i, queueCapacity, virtualThreads);
+        }
+
+        log.info("Order sequencer {} with {} {} shard(s)", enabled ? "enabled" : "disabled", shards.length,
+                virtualThreads ? "virtual" : "platform");
+    }
+
+    /**
+     * Runs the task on the shard owning the key and waits for its result.
+     * Exceptions thrown by the task are rethrown unchanged to the caller.
+     */
+    public <T> T execute(Long key, Supplier<T> task) {
+        return await(submit(key, task));
+    }
+
+    /**
+     * Queues the task on the shard owning the key without waiting, so work for
+     * different shards can run in parallel. Runs inline when sequencing is disabled.
+     */
+    public <T> Future<T> submit(Long key, Supplier<T> task) {
+        if (!enabled) {
+            FutureTask<T> inline = new FutureTask<>(() -> withRetry(task));
+            inline.run();
+            return inline;
+        }
+
+        Callable<T> callable = new DelegatingSecurityContextCallable<>(() -> withRetry(task));
+        try {
+            return shardFor(key).submit(callable);
+        } catch (RejectedExecutionException e) {
+            log.warn("Order intake queue full for shard key {}", key);
+            throw new OrderQueueFullException("Order intake is busy, please retry");
+        }
+    }
+
+    public void execute(Long key, Runnable task) {
+        execute(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for a submitted task and rethrows its exception unchanged
+     */
+    public <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order task", e);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void destroy() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    private ThreadPoolExecutor shardFor(Long key) {
+        return shards[Math.floorMod(key == null ? 0 : key.hashCode(), shards.length)];
+    }
+
+    private <T> T withRetry(Supplier<T> task) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return task.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                metrics.optimisticLockConflict(e, "retried");
+                log.debug("Optimistic lock conflict, retrying order task (attempt {}/{})", attempt, maxAttempts);
+            }
+        }
+    }
+
+    /**
+     * A shard spends most of its time blocked on JDBC, so in virtual-thread mode its worker
+     * is a virtual thread and releases its carrier while waiting
+     */
+    private static ThreadPoolExecutor newShard(int index, int queueCapacity, boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("order-sequencer-" + index).factory()
+                : Thread.ofPlatform().name("order-sequencer-" + index).daemon(true).factory();
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -2,6 +2,7 @@ package com.tr.ing.brokerage.service;
 
 import com.tr.ing.brokerage.dto.AssetDTO;
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
 
 import java.math.BigDecimal;
 
@@ -17,6 +18,8 @@ public interface AssetService {
 
     AssetDTO getTryBalance(Long customerId);
 
+    PortfolioDTO getPortfolio(Long customerId);
+
     void validateAssetBalance(Long customerId, String assetName, BigDecimal amount);
 
     void updateAssetBalance(Long customerId, String assetName, BigDecimal newBalance);
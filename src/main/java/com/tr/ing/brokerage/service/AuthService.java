@@ -1,8 +1,14 @@
 package com.tr.ing.brokerage.service;
 
+import com.tr.ing.brokerage.request.LoginRequest;
 import com.tr.ing.brokerage.request.RegisterRequest;
+import com.tr.ing.brokerage.response.JwtResponse;
 import org.springframework.http.ResponseEntity;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
     ResponseEntity<?> registerUser(RegisterRequest request);
+
+    CompletableFuture<JwtResponse> login(LoginRequest request);
 }
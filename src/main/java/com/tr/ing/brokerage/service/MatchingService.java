@@ -0,0 +1,19 @@
+package com.tr.ing.brokerage.service;
+
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.matching.Fill;
+import com.tr.ing.brokerage.money.Money;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MatchingService {
+
+    List<Fill> submit(Order order);
+
+    void cancel(Order order);
+
+    Map<Long, Money> cancel(List<Order> orders);
+
+    void rebuildBooks();
+}
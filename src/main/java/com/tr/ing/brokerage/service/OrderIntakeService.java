@@ -0,0 +1,18 @@
+package com.tr.ing.brokerage.service;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
+import com.tr.ing.brokerage.enums.Side;
+
+import java.util.List;
+
+public interface OrderIntakeService {
+
+    OrderDTO submitOrder(OrderDTO orderDTO);
+
+    List<OrderResultDTO> submitOrders(List<OrderDTO> orderDTOs);
+
+    void cancelOrder(Long orderId);
+
+    int cancelOrders(Long customerId, String assetName, Side side);
+}
@@ -1,17 +1,29 @@
 package com.tr.ing.brokerage.service;
 
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderPageDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
+import com.tr.ing.brokerage.enums.Side;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     OrderDTO createOrder(OrderDTO orderDTO);
 
+    List<OrderResultDTO> createOrders(Long customerId, List<OrderDTO> orderDTOs);
+
     List<OrderDTO> getOrdersByCustomer(Long customerId);
 
     List<OrderDTO> getOrdersByCustomerAndDateRange(Long customerId, LocalDateTime startDate, LocalDateTime endDate);
 
+    OrderPageDTO getOrderPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate, String cursor, int size);
+
+    void streamOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate, Consumer<OrderDTO> consumer);
+
     void cancelOrder(Long orderId);
+
+    int cancelOrders(Long customerId, String assetName, Side side);
 }
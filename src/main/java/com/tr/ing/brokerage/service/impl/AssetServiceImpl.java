@@ -2,12 +2,16 @@ package com.tr.ing.brokerage.service.impl;
 
 import com.tr.ing.brokerage.dto.AssetDTO;
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
 import com.tr.ing.brokerage.entity.Asset;
 import com.tr.ing.brokerage.entity.Customer;
 import com.tr.ing.brokerage.exception.AssetAlreadyExistException;
 import com.tr.ing.brokerage.exception.CustomerNotFoundException;
 import com.tr.ing.brokerage.exception.InsufficientAssetException;
 import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.portfolio.PortfolioSnapshot;
 import com.tr.ing.brokerage.repository.AssetRepository;
 import com.tr.ing.brokerage.repository.CustomerRepository;
 import com.tr.ing.brokerage.service.AssetService;
@@ -31,6 +35,8 @@ public class AssetServiceImpl implements AssetService {
     private final BaseModelMapper modelMapper;
     private final AssetRepository assetRepository;
     private final CustomerRepository customerRepository;
+    private final JournalRecorder journalRecorder;
+    private final PortfolioSnapshot portfolioSnapshot;
 
     @Override
     public void createInitialTryAsset(Long customerId) {
@@ -50,6 +56,8 @@ public class AssetServiceImpl implements AssetService {
                 .build();
 
         assetRepository.save(tryAsset);
+        journalRecorder.record(JournalEvent.assetCreated(tryAsset));
+        assetValidationHelper.balanceChanged(customerId, TRY_ASSETS);
         log.info("Created initial TRY asset for customer: {}", customerId);
     }
 
@@ -70,6 +78,8 @@ public class AssetServiceImpl implements AssetService {
                 .build();
 
         Asset savedAsset = assetRepository.save(asset);
+        journalRecorder.record(JournalEvent.assetCreated(savedAsset));
+        assetValidationHelper.balanceChanged(customer.getId(), savedAsset.getAssetName());
 
         AssetDTO dto = modelMapper.convertToDto(savedAsset, AssetDTO.class);
         dto.setCustomerId(savedAsset.getCustomer().getId());
@@ -80,18 +90,15 @@ public class AssetServiceImpl implements AssetService {
     @Override
     public void processOrder(OrderDTO orderDTO) {
         try {
-            log.debug("Processing order [ID: {}, Type: {}, Customer: {}]",
-                    orderDTO.getId(),
-                    orderDTO.getSide(),
-                    orderDTO.getCustomerId());
-
             assetValidationHelper.processOrder(orderDTO);
 
-            log.info("Completed processing order [ID: {}, Type: {}, Asset: {}, Amount: {}]",
-                    orderDTO.getId(),
-                    orderDTO.getSide(),
-                    orderDTO.getAssetName(),
-                    orderDTO.getPrice().multiply(orderDTO.getSize()));
+            if (log.isDebugEnabled()) {
+                log.debug("Completed processing order [ID: {}, Type: {}, Asset: {}, Amount: {}]",
+                        orderDTO.getId(),
+                        orderDTO.getSide(),
+                        orderDTO.getAssetName(),
+                        orderDTO.getPrice().multiply(orderDTO.getSize()));
+            }
         } catch (Exception e) {
             log.error("Failed to process order [ID: {}]: {}", orderDTO.getId(), e.getMessage());
             throw e;
@@ -101,17 +108,14 @@ public class AssetServiceImpl implements AssetService {
     @Override
     public void cancelOrder(OrderDTO orderDTO) {
         try {
-            log.debug("Cancelling order [ID: {}, Type: {}, Customer: {}]",
-                    orderDTO.getId(),
-                    orderDTO.getSide(),
-                    orderDTO.getCustomerId());
-
             assetValidationHelper.restoreOrderAssets(orderDTO);
 
-            log.info("Successfully cancelled order [ID: {}, Type: {}, Asset: {}]",
-                    orderDTO.getId(),
-                    orderDTO.getSide(),
-                    orderDTO.getAssetName());
+            if (log.isDebugEnabled()) {
+                log.debug("Cancelled order [ID: {}, Type: {}, Asset: {}]",
+                        orderDTO.getId(),
+                        orderDTO.getSide(),
+                        orderDTO.getAssetName());
+            }
         } catch (Exception e) {
             log.error("Failed to cancel order [ID: {}]: {}", orderDTO.getId(), e.getMessage());
             throw e;
@@ -125,7 +129,8 @@ public class AssetServiceImpl implements AssetService {
             log.debug("Fetching TRY balance for customer [ID: {}]", customerId);
             Asset asset = assetValidationHelper.getTryAssetEntity(customerId);
             AssetDTO balance = modelMapper.convertToDto(asset, AssetDTO.class);
-            balance.setCustomerId(asset.getCustomer().getId());
+            balance.setCustomerId(customerId);
+            assetValidationHelper.applyCurrentBalance(balance);
             log.debug("Retrieved TRY balance for customer [ID: {}]: {}",
                     customerId, balance.getUsableSize());
             return balance;
@@ -135,14 +140,20 @@ public class AssetServiceImpl implements AssetService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PortfolioDTO getPortfolio(Long customerId) {
+        return portfolioSnapshot.get(customerId);
+    }
+
     @Override
     public void validateAssetBalance(Long customerId, String assetName, BigDecimal amount) {
         try {
-            log.debug("Validating {} balance for customer [ID: {}], Amount: {}",
-                    assetName, customerId, amount);
             assetValidationHelper.validateAssetBalance(customerId, assetName, amount);
-            log.debug("Validation successful for {} [Customer: {}, Amount: {}]",
-                    assetName, customerId, amount);
+            if (log.isDebugEnabled()) {
+                log.debug("Validation successful for {} [Customer: {}, Amount: {}]",
+                        assetName, customerId, amount);
+            }
         } catch (InsufficientAssetException e) {
             log.warn("Validation failed for {} [Customer: {}, Amount: {}]: {}",
                     assetName, customerId, amount, e.getMessage());
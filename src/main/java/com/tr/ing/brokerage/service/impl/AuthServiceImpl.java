@@ -3,19 +3,32 @@ package com.tr.ing.brokerage.service.impl;
 import com.tr.ing.brokerage.entity.Role;
 import com.tr.ing.brokerage.entity.User;
 import com.tr.ing.brokerage.enums.RoleUser;
+import com.tr.ing.brokerage.exception.InvalidCredentialsException;
 import com.tr.ing.brokerage.exception.UserAlreadyExistException;
 import com.tr.ing.brokerage.repository.RoleRepository;
 import com.tr.ing.brokerage.repository.UserRepository;
+import com.tr.ing.brokerage.request.LoginRequest;
 import com.tr.ing.brokerage.request.RegisterRequest;
+import com.tr.ing.brokerage.response.JwtResponse;
+import com.tr.ing.brokerage.security.LoginExecutor;
 import com.tr.ing.brokerage.service.AuthService;
+import com.tr.ing.brokerage.util.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +37,10 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationManager authenticationManager;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final LoginExecutor loginExecutor;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -41,10 +58,36 @@ public class AuthServiceImpl implements AuthService {
         user.setRoles(roles);
 
         userRepository.save(user);
+        userCache.removeUserFromCache(user.getUsername());
 
         return ResponseEntity.ok("User registered successfully!");
     }
 
+    /**
+     * Verifies the password on the login executor, the request thread only waits for the result
+     */
+    @Override
+    public CompletableFuture<JwtResponse> login(LoginRequest request) {
+        return loginExecutor.submit(() -> {
+            Authentication authentication;
+            try {
+                authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+            } catch (AuthenticationException e) {
+                throw new InvalidCredentialsException("Invalid username or password");
+            }
+
+            User user = (User) authentication.getPrincipal();
+            return new JwtResponse(
+                    jwtTokenProvider.generateToken(authentication),
+                    user.getId(),
+                    user.getUsername(),
+                    user.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .collect(Collectors.toList()));
+        });
+    }
+
     private Set<Role> resolveRoles(Set<String> requestedRoles) {
         Set<Role> roles = new HashSet<>();
 
@@ -97,10 +97,11 @@ public class CustomerServiceImpl implements CustomerService {
 
         existingCustomer.setName(customerDTO.getName());
         existingCustomer.setIsDeleted(customerDTO.getIsDeleted());
+        Customer updatedCustomer = customerRepository.save(existingCustomer);
 
         log.debug("Customer with ID: {} updated successfully", id);
 
-        return modelMapper.convertToDto(existingCustomer, CustomerDTO.class);
+        return modelMapper.convertToDto(updatedCustomer, CustomerDTO.class);
     }
 
     @Override
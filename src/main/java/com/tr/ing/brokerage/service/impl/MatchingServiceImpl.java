@@ -0,0 +1,284 @@
+package com.tr.ing.brokerage.service.impl;
+
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.exception.OrderNotFoundException;
+import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.instrument.Instrument;
+import com.tr.ing.brokerage.instrument.InstrumentCatalog;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.matching.BookOrder;
+import com.tr.ing.brokerage.matching.Fill;
+import com.tr.ing.brokerage.matching.OrderBook;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.OrderRepository;
+import com.tr.ing.brokerage.service.MatchingService;
+import com.tr.ing.brokerage.stream.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class MatchingServiceImpl implements MatchingService {
+
+    private final OrderRepository orderRepository;
+    private final AssetValidationHelper assetValidationHelper;
+    private final JournalRecorder journalRecorder;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InstrumentCatalog instrumentCatalog;
+
+    /**
+     * Books indexed by instrument id, created on first use
+     */
+    private final AtomicReferenceArray<OrderBook> books;
+
+    public MatchingServiceImpl(OrderRepository orderRepository,
+                               AssetValidationHelper assetValidationHelper,
+                               JournalRecorder journalRecorder,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               InstrumentCatalog instrumentCatalog) {
+        this.orderRepository = orderRepository;
+        this.assetValidationHelper = assetValidationHelper;
+        this.journalRecorder = journalRecorder;
+        this.transactionManager = transactionManager;
+        this.eventPublisher = eventPublisher;
+        this.instrumentCatalog = instrumentCatalog;
+        this.books = new AtomicReferenceArray<>(instrumentCatalog.idBound());
+    }
+
+    /**
+     * Inside a transaction the remainder rests only once the order row has committed, so a
+     * taker on another shard never fills an order it cannot load yet
+     */
+    @Override
+    @Transactional
+    public List<Fill> submit(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        BookOrder incoming = BookOrder.of(order);
+        List<Fill> fills;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<BookOrder> makers = new ArrayList<>();
+            fills = book.take(incoming, makers);
+            TransactionSynchronizationManager.registerSynchronization(new SubmitSynchronization(book, incoming, makers, fills));
+        } else {
+            fills = book.match(incoming);
+        }
+
+        fills.forEach(this::settle);
+
+        if (!fills.isEmpty() && log.isDebugEnabled()) {
+            log.debug("Order {} matched with {} fill(s) on {}", order.getId(), fills.size(), order.getAssetName());
+        }
+        return fills;
+    }
+
+    /**
+     * A pending order that is not on the book has been taken by a fill that has not committed
+     * yet, so the cancel fails with an optimistic lock conflict and is retried after it
+     */
+    @Override
+    public void cancel(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        List<BookOrder> removed = new ArrayList<>();
+        reinstateOnRollback(book, removed);
+        removed.add(takeOff(book, order));
+    }
+
+    /**
+     * Takes the orders off their books, registering one rollback reinstatement per book rather
+     * than per order, and returns each order's unfilled size on the book. Fails like
+     * {@link #cancel(Order)} when one of them is in flight.
+     */
+    @Override
+    public Map<Long, Money> cancel(List<Order> orders) {
+        Map<Long, Money> unfilled = new HashMap<>();
+        orders.stream()
+                .collect(Collectors.groupingBy(Order::getAssetName))
+                .forEach((assetName, assetOrders) -> {
+                    OrderBook book = bookFor(assetName);
+                    List<BookOrder> removed = new ArrayList<>();
+                    reinstateOnRollback(book, removed);
+                    assetOrders.forEach(order -> {
+                        BookOrder bookOrder = takeOff(book, order);
+                        removed.add(bookOrder);
+                        unfilled.put(order.getId(), bookOrder.getRemaining());
+                    });
+                });
+        return unfilled;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildBooks() {
+        for (int id = 0; id < books.length(); id++) {
+            books.set(id, null);
+        }
+        orderRepository.findByStatusOrderByCreateDateAscIdAsc(Status.PENDING).forEach(order -> {
+            Optional<Instrument> instrument = instrumentCatalog.find(order.getAssetName());
+            if (instrument.isPresent()) {
+                bookFor(instrument.get()).add(BookOrder.of(order));
+            } else {
+                log.warn("Pending order {} is on {}, which is not in the instrument catalog", order.getId(), order.getAssetName());
+            }
+        });
+
+        int rebuilt = 0;
+        for (int id = 0; id < books.length(); id++) {
+            if (books.get(id) != null) {
+                rebuilt++;
+            }
+        }
+        log.info("Rebuilt {} order book(s) from pending orders", rebuilt);
+    }
+
+    private OrderBook bookFor(String assetName) {
+        return bookFor(instrumentCatalog.require(assetName));
+    }
+
+    private OrderBook bookFor(Instrument instrument) {
+        OrderBook book = books.get(instrument.id());
+        if (book == null) {
+            books.compareAndSet(instrument.id(), null, new OrderBook(instrument.symbol()));
+            book = books.get(instrument.id());
+        }
+        return book;
+    }
+
+    private void settle(Fill fill) {
+        Order buyOrder = findOrder(fill.getBuyOrderId());
+        Order sellOrder = findOrder(fill.getSellOrderId());
+
+        applyFill(buyOrder, fill);
+        applyFill(sellOrder, fill);
+
+        assetValidationHelper.settleBuyFill(buyOrder.getCustomer(), fill);
+        assetValidationHelper.settleSellFill(sellOrder.getCustomer(), fill);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Settled fill [Asset: {}, Buy: {}, Sell: {}, Quantity: {}, Price: {}]",
+                    fill.getAssetName(), fill.getBuyOrderId(), fill.getSellOrderId(),
+                    fill.getQuantity(), fill.getPrice());
+        }
+    }
+
+    /**
+     * A fill can only land on a pending order. Anything else means a cancel committed after
+     * the book handed out the fill, so the taker fails with an optimistic lock conflict, rolls
+     * back and is retried against the book as it is now.
+     */
+    private void applyFill(Order order, Fill fill) {
+        if (order.getStatus() != Status.PENDING) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, order.getId());
+        }
+        order.setFilledSize(order.getFilledSize().add(fill.getQuantity().toBigDecimal()));
+        if (order.getFilledSize().compareTo(order.getSize()) >= 0) {
+            order.setStatus(Status.MATCHED);
+        }
+        orderRepository.save(order);
+        journalRecorder.record(JournalEvent.orderFilled(order, fill.getPrice().toBigDecimal(), fill.getQuantity().toBigDecimal()));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+    }
+
+    private Order findOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+    }
+
+    private BookOrder takeOff(OrderBook book, Order order) {
+        return book.remove(order.getId())
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Order.class, order.getId()));
+    }
+
+    /**
+     * The cancels take the orders off the book before the surrounding transaction commits,
+     * so a rollback puts back exactly those orders. Registered before the first removal and
+     * filled in as the cancels go, so that a cancel failing halfway still puts back the others.
+     */
+    private void reinstateOnRollback(OrderBook book, List<BookOrder> removed) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    removed.forEach(book::reinstate);
+                }
+            }
+        });
+    }
+
+    /**
+     * The remainder crosses an order that rested while this one was being matched, so it is
+     * matched again in its own transaction. Should that fail, it rests as it is.
+     */
+    private void rematch(OrderBook book, BookOrder incoming) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> submit(findOrder(incoming.getOrderId())));
+        } catch (RuntimeException e) {
+            log.error("Rematching order {} on {} failed, resting it crossed: {}",
+                    incoming.getOrderId(), book.getAssetName(), e.getMessage());
+            book.add(incoming);
+        }
+    }
+
+    /**
+     * Applies a submit's book changes once its transaction completes: the remainder rests
+     * after a commit, and the fills taken from resting orders are given back after a rollback
+     */
+    private final class SubmitSynchronization implements TransactionSynchronization {
+
+        private final OrderBook book;
+        private final BookOrder incoming;
+        private final List<BookOrder> makers;
+        private final List<Fill> fills;
+
+        private SubmitSynchronization(OrderBook book, BookOrder incoming, List<BookOrder> makers, List<Fill> fills) {
+            this.book = book;
+            this.incoming = incoming;
+            this.makers = makers;
+            this.fills = fills;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!incoming.isFilled() && !book.restIfNotCrossing(incoming)) {
+                rematch(book, incoming);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+                for (int i = 0; i < makers.size(); i++) {
+                    book.refill(makers.get(i), fills.get(i).getQuantity());
+                }
+            }
+        }
+    }
+}
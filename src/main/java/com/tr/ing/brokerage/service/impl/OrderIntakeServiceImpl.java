@@ -0,0 +1,183 @@
+package com.tr.ing.brokerage.service.impl;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.exception.InvalidOrderBatchException;
+import com.tr.ing.brokerage.exception.InvalidOrderFilterException;
+import com.tr.ing.brokerage.exception.OrderNotFoundException;
+import com.tr.ing.brokerage.exception.OrderQueueFullException;
+import com.tr.ing.brokerage.idempotency.ClientOrderCache;
+import com.tr.ing.brokerage.repository.OrderRepository;
+import com.tr.ing.brokerage.sequencer.OrderSequencer;
+import com.tr.ing.brokerage.service.OrderIntakeService;
+import com.tr.ing.brokerage.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Service
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private final OrderSequencer orderSequencer;
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final ClientOrderCache clientOrderCache;
+    private final int batchMaxSize;
+
+    public OrderIntakeServiceImpl(OrderSequencer orderSequencer,
+                                  OrderService orderService,
+                                  OrderRepository orderRepository,
+                                  ClientOrderCache clientOrderCache,
+                                  @Value("${brokerage.orders.batch-max-size:500}") int batchMaxSize) {
+        this.orderSequencer = orderSequencer;
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.clientOrderCache = clientOrderCache;
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    /**
+     * A retry with a client order id seen inside the dedup window is answered from the cache.
+     * The cache is checked again on the customer's shard, behind the original submission if
+     * it is still running.
+     */
+    @Override
+    public OrderDTO submitOrder(OrderDTO orderDTO) {
+        Optional<OrderDTO> placed = clientOrderCache.find(orderDTO.getCustomerId(), orderDTO.getClientOrderId());
+        if (placed.isPresent()) {
+            log.debug("Returning order {} for retried client order id {}", placed.get().getId(), orderDTO.getClientOrderId());
+            return placed.get();
+        }
+
+        log.debug("Sequencing order for customer {}", orderDTO.getCustomerId());
+        return orderSequencer.execute(orderDTO.getCustomerId(), () -> clientOrderCache
+                .find(orderDTO.getCustomerId(), orderDTO.getClientOrderId())
+                .orElseGet(() -> {
+                    OrderDTO created = orderService.createOrder(orderDTO);
+                    clientOrderCache.put(created);
+                    return created;
+                }));
+    }
+
+    /**
+     * Splits the batch into one basket per customer and runs the baskets on their
+     * sequencer shards in parallel. A failing basket rejects only its own orders.
+     */
+    @Override
+    public List<OrderResultDTO> submitOrders(List<OrderDTO> orderDTOs) {
+        if (orderDTOs == null || orderDTOs.isEmpty() || orderDTOs.size() > batchMaxSize) {
+            throw new InvalidOrderBatchException("Order batch must contain between 1 and " + batchMaxSize + " orders");
+        }
+
+        Map<Long, List<Integer>> indexesByCustomer = new LinkedHashMap<>();
+        for (int i = 0; i < orderDTOs.size(); i++) {
+            indexesByCustomer.computeIfAbsent(orderDTOs.get(i).getCustomerId(), key -> new ArrayList<>()).add(i);
+        }
+
+        OrderResultDTO[] results = new OrderResultDTO[orderDTOs.size()];
+        Map<Long, Future<List<OrderResultDTO>>> baskets = new LinkedHashMap<>();
+        indexesByCustomer.forEach((customerId, indexes) -> {
+            if (customerId == null) {
+                reject(results, indexes, "Customer id is required");
+                return;
+            }
+            List<OrderDTO> basket = indexes.stream().map(orderDTOs::get).toList();
+            try {
+                baskets.put(customerId, orderSequencer.submit(customerId, () -> orderService.createOrders(customerId, basket)));
+            } catch (OrderQueueFullException e) {
+                reject(results, indexes, e.getMessage());
+            }
+        });
+
+        baskets.forEach((customerId, basket) -> {
+            List<Integer> indexes = indexesByCustomer.get(customerId);
+            try {
+                List<OrderResultDTO> basketResults = orderSequencer.await(basket);
+                for (int i = 0; i < indexes.size(); i++) {
+                    OrderResultDTO result = basketResults.get(i);
+                    result.setIndex(indexes.get(i));
+                    results[indexes.get(i)] = result;
+                    if (result.isAccepted()) {
+                        clientOrderCache.put(result.getOrder());
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Order basket for customer {} failed: {}", customerId, e.getMessage());
+                reject(results, indexes, e.getMessage());
+            }
+        });
+
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void cancelOrder(Long orderId) {
+        Long customerId = orderRepository.findCustomerIdById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+
+        log.debug("Sequencing cancel of order {} for customer {}", orderId, customerId);
+        orderSequencer.execute(customerId, () -> orderService.cancelOrder(orderId));
+    }
+
+    /**
+     * A customer's mass cancel runs on that customer's shard. Asset-wide cancels are split
+     * into one cancel per customer with pending orders on the asset, each on its own shard,
+     * so every customer's orders and balances still have a single writer. The customers'
+     * cancels commit independently; the first failure is rethrown once all of them finished.
+     */
+    @Override
+    public int cancelOrders(Long customerId, String assetName, Side side) {
+        if (customerId == null && (assetName == null || assetName.isBlank())) {
+            throw new InvalidOrderFilterException("A customer id or an asset name is required");
+        }
+
+        if (customerId != null) {
+            log.debug("Sequencing cancel of pending orders [customer: {}, asset: {}, side: {}]", customerId, assetName, side);
+            return orderSequencer.execute(customerId, () -> orderService.cancelOrders(customerId, assetName, side));
+        }
+
+        List<Long> customerIds = orderRepository.findCustomerIdsByStatusAndAsset(Status.PENDING, assetName, side);
+        log.debug("Sequencing cancel of pending {} orders [side: {}] for {} customer(s)", assetName, side, customerIds.size());
+
+        List<Future<Integer>> cancels = new ArrayList<>(customerIds.size());
+        RuntimeException failure = null;
+        for (Long id : customerIds) {
+            try {
+                cancels.add(orderSequencer.submit(id, () -> orderService.cancelOrders(id, assetName, side)));
+            } catch (OrderQueueFullException e) {
+                failure = e;
+                break;
+            }
+        }
+
+        int canceled = 0;
+        for (Future<Integer> cancel : cancels) {
+            try {
+                canceled += orderSequencer.await(cancel);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            log.warn("Asset-wide cancel of {} stopped after {} order(s): {}", assetName, canceled, failure.getMessage());
+            throw failure;
+        }
+        return canceled;
+    }
+
+    private static void reject(OrderResultDTO[] results, List<Integer> indexes, String message) {
+        indexes.forEach(index -> results[index] = OrderResultDTO.builder()
+                .index(index)
+                .accepted(false)
+                .message(message)
+                .build());
+    }
+}
@@ -1,74 +1,259 @@
 package com.tr.ing.brokerage.service.impl;
 
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderPageDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
 import com.tr.ing.brokerage.entity.Customer;
 import com.tr.ing.brokerage.entity.Order;
 import com.tr.ing.brokerage.enums.Side;
 import com.tr.ing.brokerage.enums.Status;
 import com.tr.ing.brokerage.exception.CustomerNotFoundException;
+import com.tr.ing.brokerage.exception.InstrumentNotTradableException;
+import com.tr.ing.brokerage.exception.InvalidClientOrderIdException;
+import com.tr.ing.brokerage.exception.InvalidOrderException;
+import com.tr.ing.brokerage.exception.InvalidOrderIncrementException;
 import com.tr.ing.brokerage.exception.OrderNotFoundException;
 import com.tr.ing.brokerage.exception.OrderNotPendingException;
 import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.instrument.InstrumentCatalog;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import com.tr.ing.brokerage.money.Money;
 import com.tr.ing.brokerage.repository.CustomerRepository;
+import com.tr.ing.brokerage.repository.OrderHistoryRepository;
 import com.tr.ing.brokerage.repository.OrderRepository;
+import com.tr.ing.brokerage.service.MatchingService;
 import com.tr.ing.brokerage.service.OrderService;
+import com.tr.ing.brokerage.stream.OrderStatusChangedEvent;
 import com.tr.ing.brokerage.util.BaseModelMapper;
+import com.tr.ing.brokerage.util.OrderCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.tr.ing.brokerage.constant.AppConstants.MAX_CLIENT_ORDER_ID_LENGTH;
+import static com.tr.ing.brokerage.constant.AppConstants.MAX_ORDER_PAGE_SIZE;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int CANCEL_CHUNK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final AssetValidationHelper assetValidationHelper;
+    private final MatchingService matchingService;
+    private final JournalRecorder journalRecorder;
     private final BaseModelMapper modelMapper;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BrokerageMetrics metrics;
+    private final InstrumentCatalog instrumentCatalog;
 
     @Override
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
+        return metrics.timeOrder("create", orderDTO.getSide(), () -> placeOrder(orderDTO));
+    }
+
+    /**
+     * An order whose client order id the customer already used is returned as it is now,
+     * without placing it again
+     */
+    private OrderDTO placeOrder(OrderDTO orderDTO) {
+        if (orderDTO.getClientOrderId() != null) {
+            String error = validateClientOrderId(orderDTO.getClientOrderId());
+            if (error != null) {
+                throw new InvalidClientOrderIdException(error);
+            }
+            Optional<Order> existing = orderRepository.findByCustomerIdAndClientOrderId(
+                    orderDTO.getCustomerId(), orderDTO.getClientOrderId());
+            if (existing.isPresent()) {
+                log.debug("Order {} already placed for client order id {}", existing.get().getId(), orderDTO.getClientOrderId());
+                return toDto(existing.get());
+            }
+        }
+
+        checkOrder(orderDTO);
 
         Customer customer = customerRepository.findById(orderDTO.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + orderDTO.getCustomerId()));
 
-        validateOrderBalances(orderDTO, customer.getId());
-
         Order order = modelMapper.convertToEntity(orderDTO, Order.class);
         order.setCustomer(customer);
+        order.setStatus(Status.PENDING);
+        order.setFilledSize(BigDecimal.ZERO);
+        if (order.getCreateDate() == null) {
+            order.setCreateDate(LocalDateTime.now());
+        }
         Order savedOrder = orderRepository.save(order);
+        journalRecorder.record(JournalEvent.orderCreated(savedOrder));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(savedOrder));
 
-        assetValidationHelper.processOrder(modelMapper.convertToDto(savedOrder, OrderDTO.class));
+        assetValidationHelper.processOrder(toDto(savedOrder));
+        if (!matchingService.submit(savedOrder).isEmpty()) {
+            savedOrder = findFilledOrder(savedOrder.getId());
+        }
 
-        log.info("Created order {} for customer {}", savedOrder.getId(), customer.getId());
-        return modelMapper.convertToDto(savedOrder, OrderDTO.class);
+        log.debug("Created order {} for customer {}", savedOrder.getId(), customer.getId());
+        return toDto(savedOrder);
     }
 
-    private void validateOrderBalances(OrderDTO orderDTO, Long customerId) {
-        if (orderDTO.getSide() == Side.BUY) {
-            BigDecimal totalAmount = orderDTO.getPrice().multiply(orderDTO.getSize());
-            assetValidationHelper.validateTryBalance(customerId, totalAmount);
-        } else {
-            assetValidationHelper.validateAssetBalance(
-                    customerId,
-                    orderDTO.getAssetName(),
-                    orderDTO.getSize()
-            );
+    /**
+     * Balance updates clear the persistence context, so the fills were applied to a fresh copy of the order
+     */
+    private Order findFilledOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+    }
+
+    /**
+     * Creates a basket of one customer's orders in a single transaction. Balances are
+     * reserved once per asset and the accepted orders are inserted as one JDBC batch.
+     * Orders whose client order id was already used are reported with the existing order.
+     */
+    @Override
+    @Transactional
+    public List<OrderResultDTO> createOrders(Long customerId, List<OrderDTO> orderDTOs) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + customerId));
+
+        Map<String, Order> existing = findByClientOrderIds(customerId, orderDTOs);
+        Set<String> clientOrderIds = new HashSet<>();
+        Map<OrderDTO, String> rejected = new HashMap<>();
+        List<OrderDTO> valid = new ArrayList<>();
+        for (OrderDTO orderDTO : orderDTOs) {
+            String clientOrderId = orderDTO.getClientOrderId();
+            if (clientOrderId != null && existing.containsKey(clientOrderId)) {
+                continue;
+            }
+            String error = validateOrder(orderDTO);
+            if (error == null && clientOrderId != null && !clientOrderIds.add(clientOrderId)) {
+                error = "Duplicate client order id in basket: " + clientOrderId;
+            }
+            if (error == null) {
+                valid.add(orderDTO);
+            } else {
+                rejected.put(orderDTO, error);
+            }
+        }
+        rejected.putAll(assetValidationHelper.reserveOrders(customerId, valid));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<OrderDTO, Order> accepted = new LinkedHashMap<>();
+        valid.stream()
+                .filter(orderDTO -> !rejected.containsKey(orderDTO))
+                .forEach(orderDTO -> accepted.put(orderDTO, Order.builder()
+                        .customer(customer)
+                        .assetName(orderDTO.getAssetName())
+                        .side(orderDTO.getSide())
+                        .size(orderDTO.getSize())
+                        .price(orderDTO.getPrice())
+                        .createDate(orderDTO.getCreateDate() != null ? orderDTO.getCreateDate() : now)
+                        .clientOrderId(orderDTO.getClientOrderId())
+                        .build()));
+
+        orderRepository.saveAll(accepted.values());
+        accepted.values().forEach(order -> {
+            journalRecorder.record(JournalEvent.orderCreated(order));
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+        });
+        accepted.replaceAll((orderDTO, order) ->
+                matchingService.submit(order).isEmpty() ? order : findFilledOrder(order.getId()));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Created {} of {} basket order(s) for customer {}", accepted.size(), orderDTOs.size(), customerId);
+        }
+        return orderDTOs.stream()
+                .map(orderDTO -> {
+                    Order order = accepted.containsKey(orderDTO)
+                            ? accepted.get(orderDTO)
+                            : orderDTO.getClientOrderId() != null ? existing.get(orderDTO.getClientOrderId()) : null;
+                    return order != null
+                            ? OrderResultDTO.builder().accepted(true).order(toDto(order)).build()
+                            : OrderResultDTO.builder().accepted(false).message(rejected.get(orderDTO)).build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Order> findByClientOrderIds(Long customerId, List<OrderDTO> orderDTOs) {
+        Set<String> clientOrderIds = orderDTOs.stream()
+                .map(OrderDTO::getClientOrderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (clientOrderIds.isEmpty()) {
+            return Map.of();
+        }
+        return orderRepository.findByCustomerIdAndClientOrderIdIn(customerId, clientOrderIds).stream()
+                .collect(Collectors.toMap(Order::getClientOrderId, order -> order));
+    }
+
+    /**
+     * Returns the rejection message, or null after switching the asset name to the catalog's symbol
+     */
+    private String validateOrder(OrderDTO orderDTO) {
+        try {
+            checkOrder(orderDTO);
+            return null;
+        } catch (InvalidOrderException | InvalidClientOrderIdException
+                 | InstrumentNotTradableException | InvalidOrderIncrementException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Rules shared by single and basket orders; switches the asset name to the catalog's symbol
+     */
+    private void checkOrder(OrderDTO orderDTO) {
+        if (orderDTO.getSide() == null || orderDTO.getAssetName() == null
+                || orderDTO.getSize() == null || orderDTO.getPrice() == null) {
+            throw new InvalidOrderException("Side, asset name, size and price are required");
+        }
+        if (orderDTO.getSize().signum() <= 0 || orderDTO.getPrice().signum() <= 0) {
+            throw new InvalidOrderException("Size and price must be positive");
+        }
+        if (!Money.fits(orderDTO.getSize()) || !Money.fits(orderDTO.getPrice())
+                || !Money.fits(orderDTO.getSize().multiply(orderDTO.getPrice()))) {
+            throw new InvalidOrderException("Size, price and their product must not exceed " + Money.MAX);
         }
+        if (orderDTO.getClientOrderId() != null) {
+            String error = validateClientOrderId(orderDTO.getClientOrderId());
+            if (error != null) {
+                throw new InvalidClientOrderIdException(error);
+            }
+        }
+        orderDTO.setAssetName(instrumentCatalog
+                .validate(orderDTO.getAssetName(), orderDTO.getPrice(), orderDTO.getSize())
+                .symbol());
+    }
+
+    private String validateClientOrderId(String clientOrderId) {
+        if (clientOrderId.isBlank() || clientOrderId.length() > MAX_CLIENT_ORDER_ID_LENGTH) {
+            return "Client order id must be 1 to " + MAX_CLIENT_ORDER_ID_LENGTH + " characters";
+        }
+        return null;
     }
 
+    @Override
     @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByCustomer(Long customerId) {
         return orderRepository.findByCustomerId(customerId).stream()
-                .map(order -> modelMapper.convertToDto(order, OrderDTO.class))
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -78,25 +263,122 @@ public class OrderServiceImpl implements OrderService {
                                                           LocalDateTime startDate,
                                                           LocalDateTime endDate) {
         return orderRepository.findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate).stream()
-                .map(order -> modelMapper.convertToDto(order, OrderDTO.class))
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Seeks past the cursor on {@code (create_date, id)} instead of using an offset, so every
+     * page costs the same index range scan however deep into the history it is.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOrderPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                     String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_ORDER_PAGE_SIZE);
+        LocalDateTime from = startDate != null ? startDate : HISTORY_START;
+        LocalDateTime to = endDate != null ? endDate : HISTORY_END;
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findHistoryPage(customerId, from, to, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findHistoryPageAfter(customerId, from, to, after.createDate(), after.id(), limit);
+        }
+
+        boolean hasNext = orders.size() > pageSize;
+        List<Order> page = hasNext ? orders.subList(0, pageSize) : orders;
+        return OrderPageDTO.builder()
+                .orders(page.stream().map(this::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? OrderCursor.after(page.get(pageSize - 1)).encode() : null)
+                .build();
+    }
+
+    /**
+     * Hands each order to the consumer as it is read, newest first. Runs in a read-only
+     * transaction so drivers that need one (PostgreSQL) honour the fetch size.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                             Consumer<OrderDTO> consumer) {
+        orderHistoryRepository.forEachOrder(customerId,
+                startDate != null ? startDate : HISTORY_START,
+                endDate != null ? endDate : HISTORY_END,
+                consumer);
+    }
+
     @Override
     @Transactional
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
 
+        metrics.timeOrder("cancel", order.getSide(), () -> cancel(order));
+    }
+
+    private void cancel(Order order) {
         if (order.getStatus() != Status.PENDING) {
-            throw new OrderNotPendingException("Order with id " + orderId +
+            throw new OrderNotPendingException("Order with id " + order.getId() +
                     " is not pending. Current status: " + order.getStatus());
         }
 
+        matchingService.cancel(order);
         order.setStatus(Status.CANCELED);
         Order canceledOrder = orderRepository.save(order);
+        journalRecorder.record(JournalEvent.orderCanceled(canceledOrder));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(canceledOrder));
+
+        assetValidationHelper.restoreOrderAssets(toDto(canceledOrder));
+        log.debug("Cancelled order {}", order.getId());
+    }
+
+    /**
+     * Cancels every pending order matching the filters in one transaction: one select, one
+     * status update per {@value #CANCEL_CHUNK_SIZE} orders and one balance release per
+     * customer and asset. Fails with an optimistic lock conflict, rolling everything back,
+     * if any of the orders stopped being pending in between.
+     */
+    @Override
+    @Transactional
+    public int cancelOrders(Long customerId, String assetName, Side side) {
+        return metrics.timeOrder("cancel-all", side, () -> cancelPending(customerId, assetName, side));
+    }
+
+    private int cancelPending(Long customerId, String assetName, Side side) {
+        List<Order> pending = orderRepository.findByStatusAndFilters(Status.PENDING, customerId, assetName, side);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Money> unfilled = matchingService.cancel(pending);
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < pending.size(); from += CANCEL_CHUNK_SIZE) {
+            List<Long> ids = pending.subList(from, Math.min(from + CANCEL_CHUNK_SIZE, pending.size())).stream()
+                    .map(Order::getId)
+                    .toList();
+            if (orderRepository.updateStatus(ids, Status.PENDING, Status.CANCELED, now) != ids.size()) {
+                throw new ObjectOptimisticLockingFailureException(Order.class, ids);
+            }
+        }
+
+        pending.forEach(order -> {
+            order.setStatus(Status.CANCELED);
+            journalRecorder.record(JournalEvent.orderCanceled(order));
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+        });
+        assetValidationHelper.restoreOrderAssets(pending, unfilled);
+
+        log.debug("Cancelled {} pending order(s) [customer: {}, asset: {}, side: {}]",
+                pending.size(), customerId, assetName, side);
+        return pending.size();
+    }
 
-        assetValidationHelper.restoreOrderAssets(modelMapper.convertToDto(canceledOrder, OrderDTO.class));
-        log.info("Cancelled order {}", orderId);
+    private OrderDTO toDto(Order order) {
+        OrderDTO dto = modelMapper.convertToDto(order, OrderDTO.class);
+        dto.setCustomerId(order.getCustomer().getId());
+        return dto;
     }
 }
\ No newline at end of file
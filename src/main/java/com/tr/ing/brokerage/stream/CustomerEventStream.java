@@ -0,0 +1,140 @@
+package com.tr.ing.brokerage.stream;
+
+import com.tr.ing.brokerage.dto.PortfolioAssetDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
+import com.tr.ing.brokerage.ledger.BalanceStore;
+import com.tr.ing.brokerage.portfolio.BalanceChangedEvent;
+import com.tr.ing.brokerage.portfolio.PortfolioSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes order status transitions and balance changes to the customers subscribed to them.
+ * Each connection buffers on its own (see {@link StreamSubscription}) and is written from a
+ * virtual thread, so a stalled client only parks its own writer.
+ */
+@Slf4j
+@Component
+public class CustomerEventStream {
+
+    private final PortfolioSnapshot portfolioSnapshot;
+    private final BalanceStore balanceStore;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("event-stream-", 0).factory());
+
+    private final ConcurrentMap<Long, Set<StreamSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public CustomerEventStream(PortfolioSnapshot portfolioSnapshot,
+                               BalanceStore balanceStore,
+                               @Value("${brokerage.stream.timeout:PT30M}") Duration timeout,
+                               @Value("${brokerage.stream.buffer-size:256}") int bufferSize) {
+        this.portfolioSnapshot = portfolioSnapshot;
+        this.balanceStore = balanceStore;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Opens a stream that starts with the customer's current balances
+     */
+    public SseEmitter subscribe(Long customerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        StreamSubscription subscription = new StreamSubscription(customerId, emitter, executor, bufferSize);
+        subscriptions.compute(customerId, (id, current) -> {
+            Set<StreamSubscription> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        try {
+            PortfolioDTO portfolio = portfolioSnapshot.get(customerId);
+            subscription.offerPortfolio(portfolio.getAssets());
+        } catch (RuntimeException e) {
+            unsubscribe(subscription);
+            throw e;
+        }
+
+        log.debug("Opened event stream for customer [ID: {}]", customerId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Set<StreamSubscription> set = subscriptions.get(event.customerId());
+        if (set != null) {
+            set.forEach(subscription -> subscription.offerOrder(event.order()));
+        }
+    }
+
+    /**
+     * Runs after commit or rollback, like the portfolio snapshot, and sends whatever balance
+     * the store holds at that point
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        Set<StreamSubscription> set = subscriptions.get(event.customerId());
+        if (set == null) {
+            return;
+        }
+
+        balanceStore.find(event.customerId(), event.assetName()).ifPresent(balance -> {
+            PortfolioAssetDTO asset = PortfolioAssetDTO.builder()
+                    .assetName(event.assetName())
+                    .size(balance.size())
+                    .usableSize(balance.usableSize())
+                    .reservedSize(balance.size().subtract(balance.usableSize()))
+                    .build();
+            set.forEach(subscription -> subscription.offerBalance(asset));
+        });
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients that went away
+     */
+    @Scheduled(fixedDelayString = "${brokerage.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            if (subscription.isClosed()) {
+                unsubscribe(subscription);
+            } else {
+                subscription.offerHeartbeat();
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> subscription.getEmitter().complete()));
+        executor.shutdown();
+    }
+
+    private void unsubscribe(StreamSubscription subscription) {
+        subscription.close();
+        subscriptions.computeIfPresent(subscription.getCustomerId(), (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.tr.ing.brokerage.stream;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.entity.Order;
+
+/**
+ * Published when an order is created, filled or canceled. The order is copied into a DTO at
+ * publish time, so listeners running after commit see the state that was written.
+ */
+public record OrderStatusChangedEvent(OrderDTO order) {
+
+    public static OrderStatusChangedEvent of(Order order) {
+        return new OrderStatusChangedEvent(OrderDTO.builder()
+                .id(order.getId())
+                .customerId(order.getCustomer().getId())
+                .assetName(order.getAssetName())
+                .side(order.getSide())
+                .size(order.getSize())
+                .price(order.getPrice())
+                .filledSize(order.getFilledSize())
+                .status(order.getStatus())
+                .createDate(order.getCreateDate())
+                .build());
+    }
+
+    public Long customerId() {
+        return order.getCustomerId();
+    }
+}
@@ -0,0 +1,188 @@
+package com.tr.ing.brokerage.stream;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.PortfolioAssetDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One open stream. Events are buffered here and written by a single drain task at a time, so
+ * a slow client never blocks the publisher. Order events queue up to {@code capacity}; past
+ * that the stream is closed and the client reconnects to resync. Balance updates are
+ * coalesced per asset, so only the latest balance of each asset is ever held.
+ */
+@Slf4j
+final class StreamSubscription {
+
+    static final String ORDER_EVENT = "order";
+    static final String BALANCE_EVENT = "balance";
+
+    private final Long customerId;
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final int capacity;
+
+    private final Lock lock = new ReentrantLock();
+    private final Deque<OrderDTO> orders = new ArrayDeque<>();
+    private final Map<String, PortfolioAssetDTO> balances = new LinkedHashMap<>();
+    private boolean heartbeat;
+    private boolean draining;
+    private boolean closed;
+
+    StreamSubscription(Long customerId, SseEmitter emitter, Executor executor, int capacity) {
+        this.customerId = customerId;
+        this.emitter = emitter;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    Long getCustomerId() {
+        return customerId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void offerOrder(OrderDTO order) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (orders.size() >= capacity) {
+                overflow();
+                return;
+            }
+            orders.addLast(order);
+            scheduleDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void offerBalance(PortfolioAssetDTO balance) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            balances.put(balance.getAssetName(), balance);
+            scheduleDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the initial portfolio. An update that was queued after subscribing is already
+     * newer than the snapshot, so it is kept.
+     */
+    void offerPortfolio(List<PortfolioAssetDTO> assets) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            assets.forEach(asset -> balances.putIfAbsent(asset.getAssetName(), asset));
+            scheduleDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void offerHeartbeat() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            heartbeat = true;
+            scheduleDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            orders.clear();
+            balances.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void overflow() {
+        log.warn("Closing stream of customer [ID: {}]: {} order event(s) pending", customerId, orders.size());
+        close();
+        executor.execute(emitter::complete);
+    }
+
+    private void scheduleDrain() {
+        if (!draining) {
+            draining = true;
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<SseEmitter.SseEventBuilder> batch = nextBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                for (SseEmitter.SseEventBuilder event : batch) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stream of customer [ID: {}] is gone: {}", customerId, e.getMessage());
+                close();
+            }
+        }
+    }
+
+    /**
+     * Takes everything pending, or clears the draining flag when there is nothing left
+     */
+    private List<SseEmitter.SseEventBuilder> nextBatch() {
+        lock.lock();
+        try {
+            if (closed || (orders.isEmpty() && balances.isEmpty() && !heartbeat)) {
+                draining = false;
+                return List.of();
+            }
+
+            List<SseEmitter.SseEventBuilder> batch = new ArrayList<>(orders.size() + balances.size() + 1);
+            orders.forEach(order -> batch.add(SseEmitter.event().name(ORDER_EVENT).data(order)));
+            balances.values().forEach(balance -> batch.add(SseEmitter.event().name(BALANCE_EVENT).data(balance)));
+            if (heartbeat) {
+                batch.add(SseEmitter.event().comment("heartbeat"));
+            }
+            orders.clear();
+            balances.clear();
+            heartbeat = false;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
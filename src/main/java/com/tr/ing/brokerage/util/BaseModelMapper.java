@@ -1,41 +1,101 @@
 package com.tr.ing.brokerage.util;
 
-import org.modelmapper.ModelMapper;
+import com.tr.ing.brokerage.dto.AssetDTO;
+import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.mapper.AssetMapper;
+import com.tr.ing.brokerage.mapper.CustomerMapper;
+import com.tr.ing.brokerage.mapper.OrderMapper;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Entry point for entity/DTO conversions. Each supported pair is bound to a MapStruct
+ * generated mapper, so a conversion is plain getter/setter calls without reflection.
+ */
 @Component
 public class BaseModelMapper {
 
-    private final ModelMapper modelMapper;
+    private final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> converters = new HashMap<>();
+    private final Map<Class<?>, Map<Class<?>, BiConsumer<Object, Object>>> updaters = new HashMap<>();
 
-    public BaseModelMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
+    public BaseModelMapper(OrderMapper orderMapper, AssetMapper assetMapper, CustomerMapper customerMapper) {
+        register(Order.class, OrderDTO.class, orderMapper::toDto, orderMapper::toEntity, orderMapper::updateEntity);
+        register(Asset.class, AssetDTO.class, assetMapper::toDto, assetMapper::toEntity, assetMapper::updateEntity);
+        register(Customer.class, CustomerDTO.class, customerMapper::toDto, customerMapper::toEntity, customerMapper::updateEntity);
     }
 
     public <D, T> D convertToDto(T entity, Class<D> dtoClass) {
-        return modelMapper.map(entity, dtoClass);
+        return dtoClass.cast(converterFor(entity.getClass(), dtoClass).apply(entity));
     }
 
     public <D, T> T convertToEntity(D dto, Class<T> entityClass) {
-        return modelMapper.map(dto, entityClass);
+        return entityClass.cast(converterFor(dto.getClass(), entityClass).apply(dto));
     }
 
     public <D, T> void mapDtoToEntity(D dto, T entity) {
-        modelMapper.map(dto, entity);
+        BiConsumer<Object, Object> updater = lookup(updaters, dto.getClass(), entity.getClass());
+        if (updater == null) {
+            throw new IllegalArgumentException("No mapping from " + dto.getClass().getSimpleName()
+                    + " onto " + entity.getClass().getSimpleName());
+        }
+        updater.accept(dto, entity);
     }
 
     public <D, T> List<D> convertToDtoList(List<T> entityList, Class<D> dtoClass) {
         return entityList.stream()
-                .map(entity -> modelMapper.map(entity, dtoClass))
+                .map(entity -> convertToDto(entity, dtoClass))
                 .collect(Collectors.toList());
     }
 
     public <D, T> List<T> convertToEntityList(List<D> dtoList, Class<T> entityClass) {
         return dtoList.stream()
-                .map(dto -> modelMapper.map(dto, entityClass))
+                .map(dto -> convertToEntity(dto, entityClass))
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private <E, D> void register(Class<E> entityClass, Class<D> dtoClass,
+                                 Function<E, D> toDto, Function<D, E> toEntity, BiConsumer<D, E> update) {
+        converters.computeIfAbsent(entityClass, k -> new HashMap<>()).put(dtoClass, (Function<Object, Object>) toDto);
+        converters.computeIfAbsent(dtoClass, k -> new HashMap<>()).put(entityClass, (Function<Object, Object>) toEntity);
+        updaters.computeIfAbsent(dtoClass, k -> new HashMap<>()).put(entityClass, (BiConsumer<Object, Object>) update);
+    }
+
+    private Function<Object, Object> converterFor(Class<?> sourceClass, Class<?> targetClass) {
+        Function<Object, Object> converter = lookup(converters, sourceClass, targetClass);
+        if (converter == null) {
+            throw new IllegalArgumentException("No mapping from " + sourceClass.getSimpleName()
+                    + " to " + targetClass.getSimpleName());
+        }
+        return converter;
+    }
+
+    /**
+     * Walks up the source and target hierarchies so Hibernate proxies resolve to their entity
+     */
+    private static <F> F lookup(Map<Class<?>, Map<Class<?>, F>> registry, Class<?> sourceClass, Class<?> targetClass) {
+        for (Class<?> source = sourceClass; source != null; source = source.getSuperclass()) {
+            Map<Class<?>, F> byTarget = registry.get(source);
+            if (byTarget == null) {
+                continue;
+            }
+            for (Class<?> target = targetClass; target != null; target = target.getSuperclass()) {
+                F function = byTarget.get(target);
+                if (function != null) {
+                    return function;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,50 +1,138 @@
 package com.tr.ing.brokerage.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.tr.ing.brokerage.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Issues and verifies HMAC-signed tokens with the keys configured in {@code brokerage.jwt.keys}
+ * as {@code kid:base64-secret} entries, shared by every node. Tokens are signed with the key
+ * named by {@code brokerage.jwt.signing-key-id} and carry its id in the {@code kid} header;
+ * any configured key verifies. To rotate, add the new key everywhere, then switch the signing
+ * key id, and drop the old key once the tokens it signed have expired.
+ */
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
-    private final Key jwtSecret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final long jwtExpirationMs = 86400000;
+    private static final String EPHEMERAL_KEY_ID = "ephemeral";
+
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final long jwtExpirationMs;
+
+    /**
+     * Immutable and thread-safe, built once so the key lookup and JSON deserializer are reused
+     */
+    private final JwtParser jwtParser;
+
+    /**
+     * Recently verified tokens keyed by the SHA-256 of the token, each kept until its
+     * {@code exp} claim but never longer than the configured TTL
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtTokenProvider(@Value("${brokerage.jwt.keys:}") List<String> keys,
+                            @Value("${brokerage.jwt.signing-key-id:}") String signingKeyId,
+                            @Value("${brokerage.jwt.expiration-ms:86400000}") long jwtExpirationMs,
+                            @Value("${brokerage.jwt.cache.max-size:10000}") long cacheMaxSize,
+                            @Value("${brokerage.jwt.cache.max-ttl:PT5M}") Duration cacheMaxTtl) {
+        Map<String, Key> verificationKeys = parseKeys(keys);
+        if (verificationKeys.isEmpty()) {
+            log.warn("No JWT keys configured, signing with a random key: tokens will not be accepted by other nodes or after a restart");
+            this.signingKeyId = EPHEMERAL_KEY_ID;
+            this.signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            verificationKeys.put(this.signingKeyId, signingKey);
+        } else {
+            this.signingKeyId = signingKeyId;
+            this.signingKey = verificationKeys.get(signingKeyId);
+            if (this.signingKey == null) {
+                throw new IllegalArgumentException("JWT signing key id '" + signingKeyId + "' is not among the configured keys "
+                        + verificationKeys.keySet());
+            }
+            log.info("JWT signing key {}, verification keys {}", signingKeyId, verificationKeys.keySet());
+        }
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeyIdResolver(Map.copyOf(verificationKeys))).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilExpiry(cacheMaxTtl))
+                .build();
+    }
 
     public String generateToken(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
                 .setSubject(user.getUsername())
                 .claim("roles", user.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(jwtSecret)
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token and builds its authentication in one pass, empty when the token is invalid
+     */
+    public Optional<Authentication> authenticate(String token) {
+        try {
+            return Optional.of(getAuthentication(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        VerifiedToken verified = verifiedTokens.get(hash(token), key -> verify(token));
 
-        String username = claims.getSubject();
+        return new UsernamePasswordAuthenticationToken(
+                verified.username(),
+                null,
+                verified.authorities());
+    }
+
+    public boolean validateToken(String token) {
+        return authenticate(token).isPresent();
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
         @SuppressWarnings("unchecked")
         List<String> roles = claims.get("roles", List.class);
@@ -53,18 +141,87 @@ public class JwtTokenProvider {
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
-        return new UsernamePasswordAuthenticationToken(
-                username,
-                null,
-                authorities);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(claims.getSubject(), List.copyOf(authorities),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime());
     }
 
-    public boolean validateToken(String token) {
+    private static String hash(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT must not be empty");
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses {@code kid:base64-secret} entries; secrets must be at least 256 bits
+     */
+    private static Map<String, Key> parseKeys(List<String> keys) {
+        Map<String, Key> parsed = new HashMap<>();
+        for (String entry : keys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("JWT keys must be configured as kid:base64-secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(entry.substring(separator + 1).trim()));
+            if (parsed.put(keyId, key) != null) {
+                throw new IllegalArgumentException("Duplicate JWT key id: " + keyId);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Picks the verification key by the token's {@code kid} header with a single map lookup,
+     * however many keys are active
+     */
+    private static final class KeyIdResolver extends SigningKeyResolverAdapter {
+
+        private final Map<String, Key> keys;
+
+        private KeyIdResolver(Map<String, Key> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId();
+            Key key = keyId == null ? null : keys.get(keyId);
+            if (key == null) {
+                throw new SignatureException("Unknown JWT key id: " + keyId);
+            }
+            return key;
+        }
+    }
+
+    private record VerifiedToken(String username, List<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+
+    private record UntilExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAtMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
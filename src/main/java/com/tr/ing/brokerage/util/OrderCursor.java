@@ -0,0 +1,38 @@
+package com.tr.ing.brokerage.util;
+
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a customer's order history, ordered by {@code (create_date, id)}.
+ * Clients receive it as an opaque URL-safe token and must not build it themselves.
+ */
+public record OrderCursor(LocalDateTime createDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreateDate(), order.getId());
+    }
+
+    public String encode() {
+        String raw = createDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid order history cursor");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+CREATE TABLE ledger_checkpoint (
+                                     id INT PRIMARY KEY,
+                                     last_sequence BIGINT NOT NULL
+    );
+
+INSERT INTO ledger_checkpoint (id, last_sequence) VALUES (1, 0);
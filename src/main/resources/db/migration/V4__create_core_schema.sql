@@ -0,0 +1,77 @@
+CREATE TABLE customers (
+                                     id BIGINT PRIMARY KEY,
+                                     customer_id VARCHAR(255) NOT NULL,
+                                     name VARCHAR(255) NOT NULL,
+                                     is_deleted BOOLEAN,
+                                     created_at TIMESTAMP(6) NOT NULL,
+                                     created_by VARCHAR(100) NOT NULL,
+                                     updated_at TIMESTAMP(6),
+                                     updated_by VARCHAR(100),
+                                     is_active BOOLEAN NOT NULL,
+                                     version BIGINT,
+                                     CONSTRAINT uk_customers_customer_id UNIQUE (customer_id)
+    );
+
+CREATE TABLE assets (
+                                     id BIGINT PRIMARY KEY,
+                                     customer_id BIGINT NOT NULL,
+                                     asset_name VARCHAR(255) NOT NULL,
+                                     size NUMERIC(19,4) NOT NULL,
+                                     usable_size NUMERIC(19,4) NOT NULL,
+                                     created_at TIMESTAMP(6) NOT NULL,
+                                     created_by VARCHAR(100) NOT NULL,
+                                     updated_at TIMESTAMP(6),
+                                     updated_by VARCHAR(100),
+                                     is_active BOOLEAN NOT NULL,
+                                     version BIGINT
+    );
+
+-- One row per customer and asset: findByCustomerIdAndAssetName, balance reservation and ledger flushes
+CREATE UNIQUE INDEX uk_assets_customer_asset ON assets (customer_id, asset_name);
+
+CREATE TABLE orders (
+                                     id BIGINT PRIMARY KEY,
+                                     customer_id BIGINT NOT NULL,
+                                     asset_name VARCHAR(255) NOT NULL,
+                                     side VARCHAR(16) NOT NULL,
+                                     size NUMERIC(19,4) NOT NULL,
+                                     price NUMERIC(19,4) NOT NULL,
+                                     filled_size NUMERIC(19,4) NOT NULL,
+                                     status VARCHAR(16) NOT NULL,
+                                     create_date TIMESTAMP(6) NOT NULL,
+                                     created_at TIMESTAMP(6) NOT NULL,
+                                     created_by VARCHAR(100) NOT NULL,
+                                     updated_at TIMESTAMP(6),
+                                     updated_by VARCHAR(100),
+                                     is_active BOOLEAN NOT NULL,
+                                     version BIGINT,
+                                     CONSTRAINT ck_orders_side CHECK (side IN ('BUY', 'SELL')),
+                                     CONSTRAINT ck_orders_status CHECK (status IN ('PENDING', 'MATCHED', 'CANCELED'))
+    );
+
+-- Customer history by date range and its keyset pages, newest first
+CREATE INDEX idx_orders_customer_history ON orders (customer_id, create_date, id);
+-- Pending orders in arrival order, for rebuilding the order books
+CREATE INDEX idx_orders_status_arrival ON orders (status, create_date, id);
+CREATE INDEX idx_orders_asset_status_arrival ON orders (asset_name, status, create_date, id);
+
+-- Added after the composite indexes so their leading customer_id column backs the foreign keys
+ALTER TABLE assets ADD CONSTRAINT fk_assets_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+
+CREATE TABLE users (
+                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                     username VARCHAR(20) NOT NULL,
+                                     password VARCHAR(120) NOT NULL,
+                                     CONSTRAINT uk_users_username UNIQUE (username)
+    );
+
+CREATE TABLE user_roles (
+                                     user_id BIGINT NOT NULL,
+                                     role_id BIGINT NOT NULL,
+                                     PRIMARY KEY (user_id, role_id),
+                                     CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+                                     CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+    );
+
+CREATE INDEX idx_user_roles_role ON user_roles (role_id);
@@ -0,0 +1,24 @@
+-- Tradable instruments, read once at startup into the in-memory InstrumentCatalog.
+-- Ids are small and dense: the matching engine indexes its order books by them.
+CREATE TABLE instruments (
+                                     id INT PRIMARY KEY,
+                                     symbol VARCHAR(32) NOT NULL,
+                                     tick_size NUMERIC(19,4) NOT NULL,
+                                     lot_size NUMERIC(19,4) NOT NULL,
+                                     status VARCHAR(16) NOT NULL,
+                                     CONSTRAINT uk_instruments_symbol UNIQUE (symbol),
+                                     CONSTRAINT ck_instruments_increments CHECK (tick_size > 0 AND lot_size > 0)
+    );
+
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (1, 'AKBNK', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (2, 'GARAN', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (3, 'YKBNK', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (4, 'ISCTR', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (5, 'THYAO', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (6, 'ASELS', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (7, 'KCHOL', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (8, 'SISE', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (9, 'EREGL', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (10, 'BIMAS', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (11, 'TUPRS', 0.01, 1, 'ACTIVE');
+INSERT INTO instruments (id, symbol, tick_size, lot_size, status) VALUES (12, 'FROTO', 0.01, 1, 'ACTIVE');
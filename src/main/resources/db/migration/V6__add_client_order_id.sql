@@ -0,0 +1,5 @@
+-- Client-assigned order id, so a gateway retry returns the original order instead of placing a second one.
+-- Optional: NULLs never collide in the unique index.
+ALTER TABLE orders ADD COLUMN client_order_id VARCHAR(64);
+
+CREATE UNIQUE INDEX uk_orders_customer_client_order ON orders (customer_id, client_order_id);
@@ -0,0 +1,7 @@
+-- Journal records of committed write-behind balance deltas that are not flushed to assets yet.
+-- Inserted in the transaction that produced the deltas and deleted in the flush that applies them,
+-- so recovery replays exactly the committed records and skips those of rolled back transactions.
+CREATE TABLE ledger_commits (
+                                     first_sequence BIGINT PRIMARY KEY,
+                                     last_sequence BIGINT NOT NULL
+    );
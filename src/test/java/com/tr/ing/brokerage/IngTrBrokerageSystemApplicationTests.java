@@ -3,7 +3,7 @@ package com.tr.ing.brokerage;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "brokerage.journal.directory=${java.io.tmpdir}/brokerage-test/journal")
 class IngTrBrokerageSystemApplicationTests {
 
 	@Test
@@ -0,0 +1,103 @@
+package com.tr.ing.brokerage.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_AssignsSequencesPerEvent() throws IOException {
+        EventJournal journal = open();
+
+        assertEquals(2, journal.append(List.of(change("10"), change("20"))));
+        assertEquals(3, journal.append(List.of(change("30"))));
+
+        List<JournalEvent> events = readAll(journal);
+        assertEquals(3, events.size());
+        assertEquals(2, events.get(1).sequence());
+        assertEquals(0, new BigDecimal("20").compareTo(events.get(1).usableSize()));
+    }
+
+    @Test
+    void append_FullSegment_RollsOver() throws IOException {
+        EventJournal journal = open();
+
+        for (int i = 0; i < 50; i++) {
+            journal.append(List.of(change(String.valueOf(i))));
+        }
+
+        assertTrue(journal.getSegmentCount() > 1);
+        assertEquals(50, readAll(journal).size());
+
+        List<JournalEvent> tail = new ArrayList<>();
+        journal.forEachAfter(45, tail::add);
+        assertEquals(List.of(46L, 47L, 48L, 49L, 50L), tail.stream().map(JournalEvent::sequence).toList());
+    }
+
+    @Test
+    void reopen_ContinuesAfterLastSequence() throws IOException {
+        EventJournal journal = open();
+        for (int i = 0; i < 30; i++) {
+            journal.append(List.of(change(String.valueOf(i))));
+        }
+        journal.destroy();
+
+        EventJournal reopened = open();
+        assertEquals(30, reopened.getLastSequence());
+        assertEquals(31, reopened.append(List.of(change("1"))));
+        assertEquals(31, readAll(reopened).size());
+    }
+
+    @Test
+    void reopen_TornTail_IsDiscarded() throws IOException {
+        EventJournal journal = open();
+        journal.append(List.of(change("1")));
+        journal.append(List.of(change("2")));
+        journal.destroy();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstRecord = file.readInt() + Integer.BYTES * 2;
+            file.seek(firstRecord + Integer.BYTES * 2 + 3);
+            file.writeByte(0x7F);
+        }
+
+        EventJournal reopened = open();
+        assertEquals(1, reopened.getLastSequence());
+        assertEquals(2, reopened.append(List.of(change("3"))));
+        assertEquals(0, new BigDecimal("3").compareTo(readAll(reopened).get(1).usableSize()));
+    }
+
+    private EventJournal open() throws IOException {
+        return new EventJournal(directory.toString(), SEGMENT_SIZE, false);
+    }
+
+    private static List<JournalEvent> readAll(EventJournal journal) {
+        List<JournalEvent> events = new ArrayList<>();
+        journal.forEachAfter(0, events::add);
+        return events;
+    }
+
+    private static JournalEvent change(String usableDelta) {
+        return JournalEvent.balanceChanged(1L, "TRY", BigDecimal.ZERO, new BigDecimal(usableDelta), false);
+    }
+}
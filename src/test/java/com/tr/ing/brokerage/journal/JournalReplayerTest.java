@@ -0,0 +1,150 @@
+package com.tr.ing.brokerage.journal;
+
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.ledger.Balance;
+import com.tr.ing.brokerage.ledger.BalanceKey;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import com.tr.ing.brokerage.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JournalReplayerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private EventJournal journal;
+    private JournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new EventJournal(directory.toString(), 1 << 16, false);
+        replayer = new JournalReplayer(journal, jdbcTemplate, assetRepository, customerRepository,
+                transactionManager, false, "");
+    }
+
+    @Test
+    void replay_RebuildsBalancesAndOrders() {
+        journal.append(List.of(
+                asset(1L, "TRY", "1000", 1_000),
+                order(EventType.ORDER_CREATED, 7L, "100", "5", 2_000),
+                delta(1L, "TRY", "0", "-500", 2_000)));
+        journal.append(List.of(
+                order(EventType.ORDER_FILLED, 7L, "100", "2", 3_000),
+                delta(1L, "TRY", "-200", "0", 3_000),
+                delta(1L, "AKBNK", "2", "2", 3_000)));
+
+        JournalSnapshot snapshot = replayer.replay(null);
+
+        assertEquals(6, snapshot.sequence());
+        assertBalance(snapshot.balances().get(new BalanceKey(1L, "TRY")), "800", "500");
+        assertBalance(snapshot.balances().get(new BalanceKey(1L, "AKBNK")), "2", "2");
+        JournalSnapshot.OrderState order = snapshot.orders().get(7L);
+        assertEquals(Status.PENDING, order.status());
+        assertEquals(0, new BigDecimal("2").compareTo(order.filledSize()));
+    }
+
+    @Test
+    void replay_PointInTime_StopsAtInstant() {
+        journal.append(List.of(
+                asset(1L, "TRY", "1000", 1_000),
+                order(EventType.ORDER_CREATED, 7L, "100", "5", 2_000)));
+        journal.append(List.of(order(EventType.ORDER_CANCELED, 7L, null, null, 5_000)));
+
+        JournalSnapshot before = replayer.replay(Instant.ofEpochMilli(4_000));
+        JournalSnapshot after = replayer.replay(null);
+
+        assertEquals(Status.PENDING, before.orders().get(7L).status());
+        assertEquals(Status.CANCELED, after.orders().get(7L).status());
+    }
+
+    @Test
+    void restore_PointInTime_DiscardsOrdersAndAssetsCreatedAfterIt() {
+        journal.append(List.of(
+                asset(1L, "TRY", "1000", 1_000),
+                order(EventType.ORDER_CREATED, 7L, "100", "5", 2_000)));
+        journal.append(List.of(order(EventType.ORDER_CREATED, 8L, "100", "5", 5_000)));
+        Instant upTo = Instant.ofEpochMilli(4_000);
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.ofInstant(upTo, ZoneId.systemDefault()));
+
+        replayer.restore(replayer.replay(upTo));
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM orders WHERE create_date > ?"), eq(cutoff));
+        verify(jdbcTemplate).update(startsWith("UPDATE assets SET size = 0"), any(Timestamp.class), eq(cutoff));
+    }
+
+    @Test
+    void restore_WholeJournal_DiscardsNothing() {
+        journal.append(List.of(order(EventType.ORDER_CREATED, 7L, "100", "5", 2_000)));
+
+        replayer.restore(replayer.replay(null));
+
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+
+    @Test
+    void replay_KeepsTheJournaledCreateDate() {
+        JournalEvent created = order(EventType.ORDER_CREATED, 7L, "100", "5", 2_000);
+        LocalDateTime createDate = LocalDateTime.of(2024, 3, 31, 2, 30, 15, 123_456_000);
+        journal.append(List.of(new JournalEvent(0, created.timestamp(), created.type(), created.orderId(),
+                created.customerId(), created.assetName(), created.side(), created.price(), created.size(),
+                null, false, createDate)));
+
+        assertEquals(createDate, replayer.replay(null).orders().get(7L).createDate());
+    }
+
+    private static void assertBalance(Balance balance, String size, String usableSize) {
+        assertEquals(0, new BigDecimal(size).compareTo(balance.size()));
+        assertEquals(0, new BigDecimal(usableSize).compareTo(balance.usableSize()));
+    }
+
+    private static JournalEvent asset(Long customerId, String assetName, String size, long timestamp) {
+        return new JournalEvent(0, timestamp, EventType.ASSET_CREATED, null, customerId, assetName,
+                null, null, new BigDecimal(size), new BigDecimal(size), false, null);
+    }
+
+    private static JournalEvent delta(Long customerId, String assetName, String size, String usable, long timestamp) {
+        return new JournalEvent(0, timestamp, EventType.BALANCE_CHANGED, null, customerId, assetName,
+                null, null, new BigDecimal(size), new BigDecimal(usable), true, null);
+    }
+
+    private static JournalEvent order(EventType type, Long orderId, String price, String size, long timestamp) {
+        return new JournalEvent(0, timestamp, type, orderId, 1L, "AKBNK", Side.BUY,
+                price == null ? null : new BigDecimal(price), size == null ? null : new BigDecimal(size), null, false,
+                type == EventType.ORDER_CREATED ? LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()) : null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.exception.AssetNotFoundException;
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaBalanceStoreTest {
+
+    private static final Money AMOUNT = Money.of(300);
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private JournalRecorder journalRecorder;
+
+    @InjectMocks
+    private JpaBalanceStore store;
+
+    @Test
+    void reserve_Success_SingleStatement() {
+        when(assetRepository.reserveUsableSize(1L, "TRY", AMOUNT.toBigDecimal())).thenReturn(1);
+
+        assertDoesNotThrow(() -> store.reserve(1L, "TRY", AMOUNT));
+        verify(assetRepository, never()).existsByCustomerIdAndAssetName(anyLong(), anyString());
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(anyLong(), anyString());
+        verify(journalRecorder, times(1)).record(any(JournalEvent.class));
+    }
+
+    @Test
+    void reserve_InsufficientBalance_Throws() {
+        when(assetRepository.reserveUsableSize(1L, "TRY", AMOUNT.toBigDecimal())).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(1L, "TRY")).thenReturn(true);
+
+        assertThrows(InsufficientAssetException.class, () -> store.reserve(1L, "TRY", AMOUNT));
+        verify(journalRecorder, never()).record(any(JournalEvent.class));
+    }
+
+    @Test
+    void reserve_MissingAsset_Throws() {
+        when(assetRepository.reserveUsableSize(1L, "TRY", AMOUNT.toBigDecimal())).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(1L, "TRY")).thenReturn(false);
+
+        assertThrows(AssetNotFoundException.class, () -> store.reserve(1L, "TRY", AMOUNT));
+    }
+
+    @Test
+    void adjust_MissingAsset_CreatesRow() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        Money ten = Money.of(10);
+        when(assetRepository.adjustBalance(1L, "AKBNK", ten.toBigDecimal(), ten.toBigDecimal())).thenReturn(0);
+
+        store.adjust(customer, "AKBNK", ten, ten);
+
+        verify(assetRepository, times(1)).save(any(Asset.class));
+    }
+}
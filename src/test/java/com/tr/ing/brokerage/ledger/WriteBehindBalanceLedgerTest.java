@@ -0,0 +1,267 @@
+package com.tr.ing.brokerage.ledger;
+
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.exception.AssetNotFoundException;
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.journal.EventJournal;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindBalanceLedgerTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private EventJournal journal;
+    private WriteBehindBalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new EventJournal(directory.toString(), 1 << 16, false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        ledger = new WriteBehindBalanceLedger(assetRepository, jdbcTemplate, transactionManager, journal, 0);
+        ledger.recover();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        journal.destroy();
+    }
+
+    @Test
+    void reserve_LoadsOnceAndDebitsInMemory() {
+        stubAsset(1L, "TRY", "1000");
+
+        ledger.reserve(1L, "TRY", money("300"));
+        ledger.reserve(1L, "TRY", money("200"));
+
+        assertEquals(0, new BigDecimal("500").compareTo(ledger.getUsableBalance(1L, "TRY")));
+        verify(assetRepository, times(1)).findByCustomerIdAndAssetName(1L, "TRY");
+    }
+
+    @Test
+    void reserve_Insufficient_ThrowsAndKeepsBalance() {
+        stubAsset(1L, "TRY", "100");
+
+        assertThrows(InsufficientAssetException.class, () -> ledger.reserve(1L, "TRY", money("100.01")));
+        assertEquals(0, new BigDecimal("100").compareTo(ledger.getUsableBalance(1L, "TRY")));
+    }
+
+    @Test
+    void reserve_UnknownAsset_Throws() {
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "AKBNK")).thenReturn(Optional.empty());
+
+        assertThrows(AssetNotFoundException.class, () -> ledger.reserve(1L, "AKBNK", Money.of(1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesAggregatedDeltasInOneBatch() {
+        stubAsset(1L, "TRY", "1000");
+        ledger.reserve(1L, "TRY", money("300"));
+        ledger.release(1L, "TRY", money("100"));
+
+        ledger.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE assets"), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(0, new BigDecimal("-200").compareTo((BigDecimal) batch.getValue().get(0)[1]));
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM ledger_commits"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        verify(jdbcTemplate).update(anyString(), eq(journal.getLastSequence()));
+    }
+
+    @Test
+    void flush_NothingPending_DoesNotTouchDatabase() {
+        ledger.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void rollback_RevertsInMemoryAndSkipsWriteBehind() {
+        stubAsset(1L, "TRY", "1000");
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(1L, "TRY", money("300"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        ledger.flush();
+
+        assertEquals(0, new BigDecimal("1000").compareTo(ledger.getUsableBalance(1L, "TRY")));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void commit_JournalsDeltasBeforeTheTransactionCommits() {
+        stubAsset(1L, "TRY", "1000");
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(1L, "TRY", money("300"));
+        assertEquals(0, journal.getLastSequence());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        List<JournalEvent> events = new ArrayList<>();
+        journal.forEachAfter(0, events::add);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).writeBehind());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO ledger_commits"), eq(1L), eq(1L));
+    }
+
+    @Test
+    void credit_Uncommitted_OnlySpendableByItsOwnTransaction() {
+        stubAsset(1L, "TRY", "0");
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.release(1L, "TRY", money("100"));
+        ledger.reserve(1L, "TRY", money("60"));
+
+        assertEquals(0, new BigDecimal("40").compareTo(ledger.getUsableBalance(1L, "TRY")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                CompletableFuture.supplyAsync(() -> ledger.getUsableBalance(1L, "TRY")).join()));
+        assertInstanceOf(InsufficientAssetException.class, CompletableFuture
+                .runAsync(() -> ledger.reserve(1L, "TRY", money("1")))
+                .handle((result, e) -> e.getCause()).join());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, new BigDecimal("40").compareTo(ledger.getUsableBalance(1L, "TRY")));
+    }
+
+    @Test
+    void rollback_OnlyGivesBackTheDebitsTaken() {
+        stubAsset(1L, "TRY", "100");
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(1L, "TRY", money("100"));
+        ledger.release(1L, "TRY", money("100"));
+        ledger.reserve(1L, "TRY", money("30"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, new BigDecimal("100").compareTo(ledger.getUsableBalance(1L, "TRY")));
+    }
+
+    @Test
+    void evictIdle_FlushedEntry_ReloadsFromTheTable() {
+        stubAsset(1L, "TRY", "1000");
+        ledger.reserve(1L, "TRY", money("300"));
+        ledger.flush();
+
+        ledger.evictIdle();
+        ledger.getUsableBalance(1L, "TRY");
+
+        verify(assetRepository, times(2)).findByCustomerIdAndAssetName(1L, "TRY");
+    }
+
+    @Test
+    void evictIdle_KeepsUnflushedAndHeldEntries() {
+        stubAsset(1L, "TRY", "1000");
+        ledger.reserve(1L, "TRY", money("300"));
+        ledger.evictIdle();
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserve(1L, "TRY", money("200"));
+        ledger.flush();
+        ledger.evictIdle();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(0, new BigDecimal("500").compareTo(ledger.getUsableBalance(1L, "TRY")));
+        verify(assetRepository, times(1)).findByCustomerIdAndAssetName(1L, "TRY");
+    }
+
+    @Test
+    void adjust_MissingAsset_CreatesRow() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "AKBNK")).thenReturn(Optional.empty());
+
+        ledger.adjust(customer, "AKBNK", money("5"), money("5"));
+
+        verify(assetRepository, times(1)).save(any(Asset.class));
+        assertEquals(0, new BigDecimal("5").compareTo(ledger.find(1L, "AKBNK").orElseThrow().size()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recover_ReplaysOnlyCommittedJournalRecords() throws IOException {
+        stubAsset(1L, "TRY", "1000");
+        ledger.reserve(1L, "TRY", money("300"));
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserve(1L, "TRY", money("200"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+        journal.destroy();
+        doReturn(List.of(Map.entry(1L, 1L))).when(jdbcTemplate).query(startsWith("SELECT first_sequence"), any(RowMapper.class));
+
+        journal = new EventJournal(directory.toString(), 1 << 16, false);
+        WriteBehindBalanceLedger restarted =
+                new WriteBehindBalanceLedger(assetRepository, jdbcTemplate, transactionManager, journal, 0);
+        restarted.recover();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE assets"), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(0, new BigDecimal("-300").compareTo((BigDecimal) batch.getValue().get(0)[1]));
+        verify(jdbcTemplate).update(anyString(), eq(1L));
+    }
+
+    private void stubAsset(Long customerId, String assetName, String usableSize) {
+        Asset asset = new Asset();
+        asset.setAssetName(assetName);
+        asset.setSize(new BigDecimal(usableSize));
+        asset.setUsableSize(new BigDecimal(usableSize));
+        when(assetRepository.findByCustomerIdAndAssetName(customerId, assetName)).thenReturn(Optional.of(asset));
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,146 @@
+package com.tr.ing.brokerage.matching;
+
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook("AKBNK");
+    }
+
+    @Test
+    void match_NoCross_RestsOrder() {
+        book.match(order(1L, Side.SELL, "11", "10"));
+        List<Fill> fills = book.match(order(2L, Side.BUY, "10", "10"));
+
+        assertTrue(fills.isEmpty());
+        assertEquals(2, book.size());
+        assertEquals(money("10"), book.bestBid().orElseThrow());
+        assertEquals(money("11"), book.bestAsk().orElseThrow());
+    }
+
+    @Test
+    void match_FullFill_AtRestingPrice() {
+        book.match(order(1L, Side.SELL, "9.5", "10"));
+        List<Fill> fills = book.match(order(2L, Side.BUY, "10", "10"));
+
+        assertEquals(1, fills.size());
+        Fill fill = fills.get(0);
+        assertEquals(2L, fill.getBuyOrderId());
+        assertEquals(1L, fill.getSellOrderId());
+        assertEquals(money("9.5"), fill.getPrice());
+        assertEquals(money("10"), fill.getBuyLimitPrice());
+        assertEquals(money("10"), fill.getQuantity());
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void match_PricePriority_BestPriceFirst() {
+        book.match(order(1L, Side.SELL, "10.2", "5"));
+        book.match(order(2L, Side.SELL, "10.1", "5"));
+
+        List<Fill> fills = book.match(order(3L, Side.BUY, "10.2", "5"));
+
+        assertEquals(1, fills.size());
+        assertEquals(2L, fills.get(0).getSellOrderId());
+        assertTrue(book.contains(1L));
+    }
+
+    @Test
+    void match_TimePriority_FifoWithinLevel() {
+        book.match(order(1L, Side.BUY, "10", "5"));
+        book.match(order(2L, Side.BUY, "10", "5"));
+
+        List<Fill> fills = book.match(order(3L, Side.SELL, "10", "7"));
+
+        assertEquals(2, fills.size());
+        assertEquals(1L, fills.get(0).getBuyOrderId());
+        assertEquals(money("5"), fills.get(0).getQuantity());
+        assertEquals(2L, fills.get(1).getBuyOrderId());
+        assertEquals(money("2"), fills.get(1).getQuantity());
+        assertTrue(book.contains(2L));
+        assertFalse(book.contains(3L));
+    }
+
+    @Test
+    void match_PartialFill_RestsRemainder() {
+        book.match(order(1L, Side.SELL, "10", "3"));
+
+        List<Fill> fills = book.match(order(2L, Side.BUY, "10", "5"));
+
+        assertEquals(1, fills.size());
+        assertTrue(book.contains(2L));
+        assertEquals(money("10"), book.bestBid().orElseThrow());
+        assertTrue(book.bestAsk().isEmpty());
+    }
+
+    @Test
+    void remove_RemovesRestingOrder() {
+        book.match(order(1L, Side.BUY, "10", "5"));
+
+        assertTrue(book.remove(1L).isPresent());
+        assertTrue(book.remove(1L).isEmpty());
+        assertTrue(book.bestBid().isEmpty());
+    }
+
+    @Test
+    void take_DoesNotRestRemainderAndRefillRestoresPriority() {
+        book.match(order(1L, Side.SELL, "10", "2"));
+        book.match(order(2L, Side.SELL, "10", "5"));
+        BookOrder buy = order(3L, Side.BUY, "10", "3");
+        List<BookOrder> makers = new ArrayList<>();
+
+        List<Fill> fills = book.take(buy, makers);
+        assertFalse(book.contains(3L));
+        assertFalse(book.restIfNotCrossing(buy));
+        for (int i = 0; i < makers.size(); i++) {
+            book.refill(makers.get(i), fills.get(i).getQuantity());
+        }
+
+        List<Fill> again = book.match(order(4L, Side.BUY, "10", "2"));
+        assertEquals(1L, again.get(0).getSellOrderId());
+        assertEquals(money("2"), again.get(0).getQuantity());
+    }
+
+    @Test
+    void refill_CanceledOrder_StaysOffTheBook() {
+        BookOrder sell = order(1L, Side.SELL, "10", "5");
+        book.match(sell);
+        book.take(order(2L, Side.BUY, "10", "2"), new ArrayList<>());
+
+        book.remove(1L);
+        book.refill(sell, money("2"));
+
+        assertFalse(book.contains(1L));
+    }
+
+    @Test
+    void reset_ReplacesContent() {
+        book.match(order(1L, Side.BUY, "10", "5"));
+
+        book.reset(List.of(order(2L, Side.SELL, "11", "1")));
+
+        assertFalse(book.contains(1L));
+        assertTrue(book.contains(2L));
+    }
+
+    private BookOrder order(Long id, Side side, String price, String size) {
+        return new BookOrder(id, 100L + id, side, money(price), money(size));
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,52 @@
+package com.tr.ing.brokerage.metrics;
+
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrokerageMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BrokerageMetrics metrics = new BrokerageMetrics(registry);
+
+    @Test
+    void timeOrder_TagsSideAndException() {
+        assertEquals("ok", metrics.timeOrder("create", Side.BUY, () -> "ok"));
+        assertThrows(InsufficientAssetException.class, () -> metrics.timeOrder("create", Side.SELL, () -> {
+            throw new InsufficientAssetException("Insufficient AKBNK balance");
+        }));
+
+        assertEquals(1, registry.get(BrokerageMetrics.ORDERS)
+                .tags("operation", "create", "side", "BUY", "exception", "none").timer().count());
+        assertEquals(1, registry.get(BrokerageMetrics.ORDERS)
+                .tags("operation", "create", "side", "SELL", "exception", "InsufficientAssetException").timer().count());
+    }
+
+    @Test
+    void balanceMeters_TagAssetTypeInsteadOfAssetName() {
+        metrics.timeBalance("reserve", "TRY", () -> { });
+        metrics.timeBalance("reserve", "AKBNK", () -> { });
+        metrics.timeBalance("reserve", "THYAO", () -> { });
+        metrics.insufficientBalance("reserve", "AKBNK");
+
+        assertEquals(1, registry.get(BrokerageMetrics.BALANCE_OPERATIONS).tag("asset.type", "cash").timer().count());
+        assertEquals(2, registry.get(BrokerageMetrics.BALANCE_OPERATIONS).tag("asset.type", "security").timer().count());
+        assertEquals(1, registry.get(BrokerageMetrics.INSUFFICIENT_BALANCE).tag("asset.type", "security").counter().count());
+        assertTrue(registry.getMeters().stream()
+                .flatMap(meter -> meter.getId().getTags().stream())
+                .noneMatch(tag -> tag.getValue().equals("AKBNK")));
+    }
+
+    @Test
+    void optimisticLockConflict_TagsEntity() {
+        metrics.optimisticLockConflict(new ObjectOptimisticLockingFailureException(Order.class, 1L), "rejected");
+
+        assertEquals(1, registry.get(BrokerageMetrics.OPTIMISTIC_LOCK_CONFLICTS)
+                .tags("entity", "Order", "outcome", "rejected").counter().count());
+    }
+}
@@ -0,0 +1,65 @@
+package com.tr.ing.brokerage.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_RoundsToFourDecimalsAndConvertsBack() {
+        assertEquals(new Money(123_457), Money.of(new BigDecimal("12.34565")));
+        assertEquals(new Money(-123_457), Money.of(new BigDecimal("-12.34565")));
+        assertEquals(new BigDecimal("12.3400"), Money.of(new BigDecimal("12.34")).toBigDecimal());
+        assertEquals(Money.of(100), Money.of(new BigDecimal("1E+2")));
+    }
+
+    @Test
+    void times_RoundsHalfUp() {
+        Money price = Money.of(new BigDecimal("0.0003"));
+        Money size = Money.of(new BigDecimal("0.5"));
+
+        assertEquals(new Money(2), price.times(size));
+        assertEquals(new Money(-2), price.negate().times(size));
+        assertEquals(Money.of(new BigDecimal("147")), Money.of(49).times(Money.of(3)));
+    }
+
+    @Test
+    void times_FallsBackToBigDecimalWhenTheUnscaledProductOverflows() {
+        Money price = Money.of(1_000_000);
+        Money size = Money.of(100_000);
+
+        assertEquals(Money.of(100_000_000_000L), price.times(size));
+    }
+
+    @Test
+    void fits_MatchesTheRangeOfOf() {
+        assertTrue(Money.fits(Money.MAX.toBigDecimal()));
+        assertTrue(Money.fits(new BigDecimal("922337203685477.58074")));
+        assertFalse(Money.fits(new BigDecimal("922337203685477.5808")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("922337203685477.5808")));
+    }
+
+    @Test
+    void arithmetic_ThrowsOnOverflow() {
+        Money max = new Money(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(new Money(1)));
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> max.times(Money.of(2)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    void compareAndMin() {
+        Money one = Money.of(1);
+        Money two = Money.of(2);
+
+        assertTrue(one.compareTo(two) < 0);
+        assertSame(one, one.min(two));
+        assertEquals(-1, one.minus(two).signum());
+        assertEquals("1.5000", Money.of(new BigDecimal("1.5")).toString());
+    }
+}
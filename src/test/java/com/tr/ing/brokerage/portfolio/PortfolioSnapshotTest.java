@@ -0,0 +1,123 @@
+package com.tr.ing.brokerage.portfolio;
+
+import com.tr.ing.brokerage.dto.PortfolioAssetDTO;
+import com.tr.ing.brokerage.dto.PortfolioDTO;
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.exception.CustomerNotFoundException;
+import com.tr.ing.brokerage.ledger.Balance;
+import com.tr.ing.brokerage.ledger.BalanceStore;
+import com.tr.ing.brokerage.repository.AssetRepository;
+import com.tr.ing.brokerage.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioSnapshotTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private BalanceStore balanceStore;
+
+    private PortfolioSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new PortfolioSnapshot(assetRepository, customerRepository, balanceStore, 100);
+    }
+
+    @Test
+    void get_LoadsOnceWithReservedAmounts() {
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(assetRepository.findByCustomerId(1L)).thenReturn(List.of(asset("TRY", "1000", "1000"), asset("AKBNK", "10", "10")));
+        when(balanceStore.find(1L, "TRY")).thenReturn(Optional.of(balance("1000", "600")));
+        when(balanceStore.find(1L, "AKBNK")).thenReturn(Optional.empty());
+
+        snapshot.get(1L);
+        PortfolioDTO portfolio = snapshot.get(1L);
+
+        assertEquals(List.of("AKBNK", "TRY"), portfolio.getAssets().stream().map(PortfolioAssetDTO::getAssetName).toList());
+        assertAsset(portfolio.getAssets().get(0), "10", "10", "0");
+        assertAsset(portfolio.getAssets().get(1), "1000", "600", "400");
+        verify(assetRepository, times(1)).findByCustomerId(1L);
+    }
+
+    @Test
+    void onBalanceChanged_RefreshesOnlyThatAsset() {
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(assetRepository.findByCustomerId(1L)).thenReturn(List.of(asset("TRY", "1000", "1000")));
+        when(balanceStore.find(1L, "TRY")).thenReturn(Optional.of(balance("1000", "1000")));
+        snapshot.get(1L);
+
+        when(balanceStore.find(1L, "AKBNK")).thenReturn(Optional.of(balance("5", "5")));
+        snapshot.onBalanceChanged(new BalanceChangedEvent(1L, "AKBNK"));
+        PortfolioDTO portfolio = snapshot.get(1L);
+
+        assertEquals(2, portfolio.getAssets().size());
+        assertAsset(portfolio.getAssets().get(0), "5", "5", "0");
+        verify(assetRepository, times(1)).findByCustomerId(1L);
+        verify(balanceStore, times(1)).find(1L, "TRY");
+    }
+
+    @Test
+    void onBalanceChanged_IgnoresCustomersNotLoaded() {
+        snapshot.onBalanceChanged(new BalanceChangedEvent(2L, "TRY"));
+
+        verifyNoInteractions(balanceStore, assetRepository);
+    }
+
+    @Test
+    void onBalanceChanged_DropsSnapshotWhenRefreshFails() {
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(assetRepository.findByCustomerId(1L)).thenReturn(List.of());
+        snapshot.get(1L);
+
+        when(balanceStore.find(anyLong(), anyString())).thenThrow(new IllegalStateException("connection closed"));
+        snapshot.onBalanceChanged(new BalanceChangedEvent(1L, "TRY"));
+        snapshot.get(1L);
+
+        verify(assetRepository, times(2)).findByCustomerId(1L);
+    }
+
+    @Test
+    void get_CustomerNotFound() {
+        when(customerRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(CustomerNotFoundException.class, () -> snapshot.get(9L));
+        verifyNoInteractions(assetRepository);
+    }
+
+    private static Asset asset(String assetName, String size, String usableSize) {
+        return Asset.builder()
+                .assetName(assetName)
+                .size(new BigDecimal(size))
+                .usableSize(new BigDecimal(usableSize))
+                .build();
+    }
+
+    private static Balance balance(String size, String usableSize) {
+        return new Balance(new BigDecimal(size), new BigDecimal(usableSize));
+    }
+
+    private static void assertAsset(PortfolioAssetDTO asset, String size, String usableSize, String reserved) {
+        assertEquals(0, new BigDecimal(size).compareTo(asset.getSize()));
+        assertEquals(0, new BigDecimal(usableSize).compareTo(asset.getUsableSize()));
+        assertEquals(0, new BigDecimal(reserved).compareTo(asset.getReservedSize()));
+    }
+}
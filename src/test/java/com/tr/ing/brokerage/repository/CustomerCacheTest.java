@@ -0,0 +1,120 @@
+package com.tr.ing.brokerage.repository;
+
+import com.tr.ing.brokerage.config.HibernateCacheConfig;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.enums.RoleUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each step runs in its own transaction so that lookups go through the second-level cache
+ * rather than the persistence context, the way separate requests do.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> customerRepository.deleteAll());
+    }
+
+    @Test
+    void findById_ServedFromEntityCache() {
+        Long id = saveCustomer("CACHE1");
+        statistics.clear();
+
+        Customer customer = transaction.execute(status -> customerRepository.findById(id).orElseThrow());
+
+        assertEquals("CACHE1", customer.getCustomerId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.CUSTOMERS).getHitCount());
+    }
+
+    @Test
+    void findByCustomerId_ServedFromNaturalIdCache() {
+        saveCustomer("CACHE2");
+        statistics.clear();
+
+        Customer customer = transaction.execute(status -> customerRepository.findByCustomerId("CACHE2").orElseThrow());
+
+        assertEquals("CACHE2", customer.getCustomerId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void update_ReplacesCachedEntry() {
+        Long id = saveCustomer("CACHE3");
+        transaction.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(id).orElseThrow();
+            customer.setName("Renamed");
+            customer.setIsDeleted(true);
+            customerRepository.save(customer);
+        });
+        statistics.clear();
+
+        Customer customer = transaction.execute(status -> customerRepository.findById(id).orElseThrow());
+
+        assertEquals("Renamed", customer.getName());
+        assertTrue(customer.getIsDeleted());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByRoleUser_ServedFromQueryCache() {
+        transaction.execute(status -> roleRepository.findByRoleUser(RoleUser.ROLE_USER).orElseThrow());
+        statistics.clear();
+
+        transaction.execute(status -> roleRepository.findByRoleUser(RoleUser.ROLE_USER).orElseThrow());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private Long saveCustomer(String customerId) {
+        Customer customer = Customer.builder().customerId(customerId).name("Cached").build();
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test");
+        return transaction.execute(status -> customerRepository.save(customer).getId());
+    }
+}
@@ -0,0 +1,155 @@
+package com.tr.ing.brokerage.repository;
+
+import com.tr.ing.brokerage.config.HibernateCacheConfig;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot repository queries against the Flyway schema and fails when H2 plans a table
+ * scan instead of the index each one is meant to use. The SQL checked is the SQL Hibernate
+ * actually generates, captured through a {@link StatementInspector}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.tr.ing.brokerage.repository.QueryPlanTest$CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(HibernateCacheConfig.class)
+class QueryPlanTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ordersByCustomerAndDateRange_UsesHistoryIndex() {
+        assertUsesIndex("idx_orders_customer_history", "customer_id",
+                () -> orderRepository.findByCustomerIdAndCreateDateBetween(1L, FROM, TO));
+    }
+
+    @Test
+    void orderHistoryPages_UseHistoryIndex() {
+        assertUsesIndex("idx_orders_customer_history", "customer_id",
+                () -> orderRepository.findHistoryPage(1L, FROM, TO, Limit.of(101)));
+        assertUsesIndex("idx_orders_customer_history", "customer_id",
+                () -> orderRepository.findHistoryPageAfter(1L, FROM, TO, TO, 10L, Limit.of(101)));
+    }
+
+    @Test
+    void pendingOrders_UseStatusIndexes() {
+        assertUsesIndex("idx_orders_status_arrival", "status",
+                () -> orderRepository.findByStatusOrderByCreateDateAscIdAsc(Status.PENDING));
+        assertUsesIndex("idx_orders_asset_status_arrival", "asset_name",
+                () -> orderRepository.findByAssetNameAndStatusOrderByCreateDateAscIdAsc("AKBNK", Status.PENDING));
+        assertUsesIndex("idx_orders_status_arrival", "status",
+                () -> orderRepository.findByStatusAndFilters(Status.PENDING, 1L, "AKBNK", Side.BUY));
+        assertUsesIndex("idx_orders_asset_status_arrival", "status",
+                () -> orderRepository.findCustomerIdsByStatusAndAsset(Status.PENDING, "AKBNK", null));
+    }
+
+    @Test
+    void clientOrderIdLookups_UseClientOrderIndex() {
+        assertUsesIndex("uk_orders_customer_client_order", "customer_id",
+                () -> orderRepository.findByCustomerIdAndClientOrderId(1L, "gw-1"));
+        assertUsesIndex("uk_orders_customer_client_order", "customer_id",
+                () -> orderRepository.findByCustomerIdAndClientOrderIdIn(1L, List.of("gw-1", "gw-2")));
+    }
+
+    @Test
+    void assetLookupsAndBalanceUpdates_UseCustomerAssetIndex() {
+        assertUsesIndex("uk_assets_customer_asset", "customer_id",
+                () -> assetRepository.findByCustomerIdAndAssetName(1L, "TRY"));
+        assertUsesIndex("uk_assets_customer_asset", "customer_id",
+                () -> assetRepository.existsByCustomerIdAndAssetName(1L, "TRY"));
+        assertUsesIndex("uk_assets_customer_asset", "customer_id",
+                () -> assetRepository.findBalance(1L, "TRY"));
+        assertUsesIndex("fk_assets_customer", "customer_id",
+                () -> assetRepository.findByCustomerId(1L));
+        assertUsesIndex("uk_assets_customer_asset", "customer_id",
+                () -> assetRepository.reserveUsableSize(1L, "TRY", BigDecimal.ONE));
+        assertUsesIndex("uk_assets_customer_asset", "customer_id",
+                () -> assetRepository.adjustBalance(1L, "TRY", BigDecimal.ONE, BigDecimal.ONE));
+    }
+
+    @Test
+    void customerAndUserLookups_UseUniqueIndexes() {
+        assertUsesIndex("uk_customers_customer_id", "customer_id", () -> customerRepository.findByCustomerId("C1"));
+        assertUsesIndex("uk_users_username", "username", () -> userRepository.findByUsername("admin"));
+    }
+
+    /**
+     * Asserts the plan reaches the table through {@code index}, seeking on its leading {@code column}
+     */
+    private void assertUsesIndex(String index, String column, Runnable query) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+        assertFalse(CapturingStatementInspector.STATEMENTS.isEmpty(), "No statement was executed");
+
+        String sql = CapturingStatementInspector.STATEMENTS.getFirst();
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), () -> "Table scan in plan:\n" + plan);
+        Pattern seek = Pattern.compile(Pattern.quote(index) + "\\w*: " + Pattern.quote(column) + " (=|>=|<=) ",
+                Pattern.CASE_INSENSITIVE);
+        assertTrue(seek.matcher(plan).find(), () -> "Expected a seek on " + index + "(" + column + ") in plan:\n" + plan);
+    }
+
+    /**
+     * Binds every parameter to null; H2 picks the access path from the predicates, not the values
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
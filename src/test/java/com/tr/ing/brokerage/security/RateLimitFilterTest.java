@@ -0,0 +1,73 @@
+package com.tr.ing.brokerage.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(true, 1, 1, 1, 1, Duration.ofSeconds(1), Duration.ofMinutes(10), 1000),
+            new BrokerageMetrics(registry),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_OverLimit_Returns429WithRetryAfter() throws Exception {
+        authenticate("alice");
+
+        assertEquals(200, request("/api/v1/orders").getStatus());
+        MockHttpServletResponse limited = request("/api/v1/orders");
+
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(limited.getContentAsString().contains("Too many requests"));
+        assertEquals(1, registry.get(BrokerageMetrics.RATE_LIMITED).tag("group", "orders").counter().count());
+    }
+
+    @Test
+    void doFilter_UnlimitedPathsAndAnonymousRequests_PassThrough() throws Exception {
+        assertEquals(200, request("/api/v1/orders").getStatus());
+        assertEquals(200, request("/api/v1/orders").getStatus());
+
+        authenticate("alice");
+        assertEquals(200, request("/api/v1/customers/1").getStatus());
+        assertEquals(200, request("/api/v1/customers/1").getStatus());
+        assertEquals(200, request("/api/v1/customers/1/assets/try-balance").getStatus());
+        assertEquals(429, request("/api/v1/customers/1/assets/try-balance").getStatus());
+    }
+
+    private MockHttpServletResponse request(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
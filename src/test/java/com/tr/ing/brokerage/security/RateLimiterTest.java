@@ -0,0 +1,63 @@
+package com.tr.ing.brokerage.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.tr.ing.brokerage.security.RateLimiter.Group.ASSETS;
+import static com.tr.ing.brokerage.security.RateLimiter.Group.ORDERS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Users get 10 order requests a second, admins 100; a bucket holds one second's worth
+     */
+    private final RateLimiter rateLimiter = new RateLimiter(true, 10, 100, 5, 50,
+            Duration.ofSeconds(1), Duration.ofMinutes(10), 1000);
+
+    @Test
+    void tryAcquire_AdmitsBurstThenReportsWait() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("alice", ORDERS, false, 0));
+        }
+
+        assertEquals(SECOND / 10, rateLimiter.tryAcquire("alice", ORDERS, false, 0));
+    }
+
+    @Test
+    void tryAcquire_RefillsAtConfiguredRate() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("alice", ORDERS, false, 0);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("alice", ORDERS, false, SECOND / 10));
+        assertTrue(rateLimiter.tryAcquire("alice", ORDERS, false, SECOND / 10) > 0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("alice", ORDERS, false, 2 * SECOND));
+        }
+    }
+
+    @Test
+    void tryAcquire_SeparateBucketsPerPrincipalAndGroup() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("alice", ORDERS, false, 0);
+        }
+
+        assertTrue(rateLimiter.tryAcquire("alice", ORDERS, false, 0) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("alice", ASSETS, false, 0));
+        assertEquals(0, rateLimiter.tryAcquire("bob", ORDERS, false, 0));
+    }
+
+    @Test
+    void tryAcquire_AdminsGetTheirOwnLimit() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("admin", ORDERS, true, 0));
+        }
+
+        assertTrue(rateLimiter.tryAcquire("admin", ORDERS, true, 0) > 0);
+    }
+}
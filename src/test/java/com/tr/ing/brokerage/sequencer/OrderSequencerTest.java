@@ -0,0 +1,149 @@
+package com.tr.ing.brokerage.sequencer;
+
+import com.tr.ing.brokerage.exception.InsufficientAssetException;
+import com.tr.ing.brokerage.exception.OrderQueueFullException;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSequencerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BrokerageMetrics metrics = new BrokerageMetrics(registry);
+
+    private OrderSequencer sequencer;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (sequencer != null) {
+            sequencer.destroy();
+        }
+    }
+
+    @Test
+    void execute_SameKey_RunsOnSingleThread() throws Exception {
+        sequencer = new OrderSequencer(metrics, true, 4, 128, 1, false);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<Object>> results = callers.invokeAll(java.util.Collections.nCopies(50, () ->
+                sequencer.execute(7L, () -> {
+                    threads.add(Thread.currentThread().getName());
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    inFlight.decrementAndGet();
+                    return null;
+                })));
+        for (Future<Object> result : results) {
+            result.get();
+        }
+        callers.shutdown();
+
+        assertEquals(1, threads.size());
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    void execute_PropagatesTaskException() {
+        sequencer = new OrderSequencer(metrics, true, 2, 16, 1, false);
+
+        assertThrows(InsufficientAssetException.class, () ->
+                sequencer.execute(1L, () -> {
+                    throw new InsufficientAssetException("Insufficient TRY balance");
+                }));
+    }
+
+    @Test
+    void execute_RetriesOptimisticLockFailure() {
+        sequencer = new OrderSequencer(metrics, true, 2, 16, 3, false);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = sequencer.execute(1L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, registry.get(BrokerageMetrics.OPTIMISTIC_LOCK_CONFLICTS).tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void execute_PropagatesSecurityContext() {
+        sequencer = new OrderSequencer(metrics, true, 2, 16, 1, false);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+
+        String name = sequencer.execute(1L, () ->
+                SecurityContextHolder.getContext().getAuthentication().getName());
+
+        assertEquals("admin", name);
+    }
+
+    @Test
+    void execute_QueueFull_Rejects() throws Exception {
+        sequencer = new OrderSequencer(metrics, true, 1, 1, 1, false);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        callers.submit(() -> sequencer.execute(1L, () -> {
+            started.countDown();
+            await(release);
+        }));
+        started.await();
+        callers.submit(() -> sequencer.execute(1L, () -> {
+        }));
+        Thread.sleep(100);
+
+        assertThrows(OrderQueueFullException.class, () -> sequencer.execute(1L, () -> {
+        }));
+        release.countDown();
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_Disabled_RunsInline() {
+        sequencer = new OrderSequencer(metrics, false, 4, 16, 1, false);
+
+        String thread = sequencer.execute(1L, () -> Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), thread);
+        assertEquals(0, sequencer.getShardCount());
+    }
+
+    @Test
+    void execute_VirtualThreads_RunsOnNamedVirtualShard() {
+        sequencer = new OrderSequencer(metrics, true, 2, 16, 1, true);
+
+        Thread worker = sequencer.execute(3L, Thread::currentThread);
+
+        assertTrue(worker.isVirtual());
+        assertTrue(worker.getName().startsWith("order-sequencer-"));
+        assertSame(worker, sequencer.execute(3L, Thread::currentThread));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.tr.ing.brokerage.service;
+
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.enums.TradingStatus;
+import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.instrument.Instrument;
+import com.tr.ing.brokerage.instrument.InstrumentCatalog;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.matching.Fill;
+import com.tr.ing.brokerage.money.Money;
+import com.tr.ing.brokerage.repository.OrderRepository;
+import com.tr.ing.brokerage.service.impl.MatchingServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchingServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetValidationHelper assetValidationHelper;
+
+    @Mock
+    private JournalRecorder journalRecorder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private InstrumentCatalog instrumentCatalog = new InstrumentCatalog(List.of(
+            new Instrument(1, "AKBNK", Money.of(new BigDecimal("0.01")), Money.of(1), TradingStatus.ACTIVE)));
+
+    @InjectMocks
+    private MatchingServiceImpl matchingService;
+
+    private Customer buyer;
+    private Customer seller;
+    private final ExecutorService buyerShard = Executors.newSingleThreadExecutor();
+    private final ExecutorService sellerShard = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        buyer = new Customer();
+        buyer.setId(1L);
+
+        seller = new Customer();
+        seller.setId(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buyerShard.shutdownNow();
+        sellerShard.shutdownNow();
+    }
+
+    @Test
+    void submit_NoCounterparty_RestsOrder() {
+        Order buy = order(10L, buyer, Side.BUY, "100", "5");
+
+        List<Fill> fills = matchingService.submit(buy);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(Status.PENDING, buy.getStatus());
+        verifyNoInteractions(assetValidationHelper);
+    }
+
+    @Test
+    void submit_CrossingOrders_MatchAndSettle() {
+        Order sell = order(10L, seller, Side.SELL, "99", "5");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(11L)).thenReturn(Optional.of(buy));
+
+        matchingService.submit(sell);
+        List<Fill> fills = matchingService.submit(buy);
+
+        assertEquals(1, fills.size());
+        assertEquals(Money.of(new BigDecimal("99")), fills.get(0).getPrice());
+        assertEquals(Status.MATCHED, buy.getStatus());
+        assertEquals(Status.MATCHED, sell.getStatus());
+        assertEquals(0, buy.getFilledSize().compareTo(new BigDecimal("5")));
+        verify(assetValidationHelper, times(1)).settleBuyFill(buyer, fills.get(0));
+        verify(assetValidationHelper, times(1)).settleSellFill(seller, fills.get(0));
+        verify(orderRepository, times(2)).save(any(Order.class));
+        verify(journalRecorder, times(2)).record(any(JournalEvent.class));
+    }
+
+    @Test
+    void submit_PartialFill_KeepsOrderPending() {
+        Order sell = order(10L, seller, Side.SELL, "100", "2");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(11L)).thenReturn(Optional.of(buy));
+
+        matchingService.submit(sell);
+        matchingService.submit(buy);
+
+        assertEquals(Status.MATCHED, sell.getStatus());
+        assertEquals(Status.PENDING, buy.getStatus());
+        assertEquals(0, buy.getFilledSize().compareTo(new BigDecimal("2")));
+    }
+
+    @Test
+    void submit_OnTwoShards_RestsOnlyAfterCommitAndRematchesTheCrossingRemainder() throws Exception {
+        Order sell = order(10L, seller, Side.SELL, "99", "5");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(11L)).thenReturn(Optional.of(buy));
+
+        List<Fill> sellFills = sellerShard.submit(() -> begin(() -> matchingService.submit(sell))).get();
+        List<Fill> buyFills = buyerShard.submit(() -> begin(() -> matchingService.submit(buy))).get();
+
+        assertTrue(sellFills.isEmpty());
+        assertTrue(buyFills.isEmpty());
+        verifyNoInteractions(assetValidationHelper);
+
+        sellerShard.submit(() -> complete(TransactionSynchronization.STATUS_COMMITTED)).get();
+        buyerShard.submit(() -> complete(TransactionSynchronization.STATUS_COMMITTED)).get();
+
+        assertEquals(Status.MATCHED, sell.getStatus());
+        assertEquals(Status.MATCHED, buy.getStatus());
+        verify(assetValidationHelper, times(1)).settleBuyFill(eq(buyer), any(Fill.class));
+        verify(assetValidationHelper, times(1)).settleSellFill(eq(seller), any(Fill.class));
+    }
+
+    @Test
+    void submit_RolledBack_GivesBackOnlyItsOwnFills() throws Exception {
+        Order sell = order(10L, seller, Side.SELL, "100", "5");
+        Order other = order(11L, seller, Side.SELL, "100", "5");
+        Order buy = order(12L, buyer, Side.BUY, "100", "3");
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(12L)).thenReturn(Optional.of(buy));
+        matchingService.submit(sell);
+        sellerShard.submit(() -> begin(() -> matchingService.submit(other))).get();
+
+        buyerShard.submit(() -> begin(() -> matchingService.submit(buy))).get();
+        buyerShard.submit(() -> complete(TransactionSynchronization.STATUS_ROLLED_BACK)).get();
+        sellerShard.submit(() -> complete(TransactionSynchronization.STATUS_COMMITTED)).get();
+
+        Map<Long, Money> unfilled = matchingService.cancel(List.of(sell, other));
+        assertEquals(Money.of(5), unfilled.get(10L));
+        assertEquals(Money.of(5), unfilled.get(11L));
+    }
+
+    @Test
+    void cancel_InterleavedWithTakerSettle_NeitherRefundsNorFillsTwice() {
+        Order sell = order(10L, seller, Side.SELL, "100", "5");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+        matchingService.submit(sell);
+        when(orderRepository.findById(11L)).thenReturn(Optional.of(buy));
+        when(orderRepository.findById(10L)).thenAnswer(invocation -> {
+            assertInstanceOf(ObjectOptimisticLockingFailureException.class, sellerShard.submit(() -> {
+                try {
+                    matchingService.cancel(sell);
+                    return null;
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }).get());
+            sell.setStatus(Status.CANCELED);
+            return Optional.of(sell);
+        });
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> matchingService.submit(buy));
+        assertEquals(Status.CANCELED, sell.getStatus());
+        verifyNoInteractions(assetValidationHelper);
+    }
+
+    @Test
+    void cancel_RemovesOrderFromBook() {
+        Order sell = order(10L, seller, Side.SELL, "100", "5");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+
+        matchingService.submit(sell);
+        matchingService.cancel(sell);
+        List<Fill> fills = matchingService.submit(buy);
+
+        assertTrue(fills.isEmpty());
+    }
+
+    @Test
+    void cancelAll_RemovesOrdersAndReturnsUnfilledSizes() {
+        Order sell = order(10L, seller, Side.SELL, "100", "5");
+        Order resting = order(11L, seller, Side.SELL, "101", "3");
+        Order buy = order(12L, buyer, Side.BUY, "100", "2");
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(12L)).thenReturn(Optional.of(buy));
+        matchingService.submit(sell);
+        matchingService.submit(resting);
+        matchingService.submit(buy);
+
+        Map<Long, Money> unfilled = matchingService.cancel(List.of(sell, resting));
+
+        assertEquals(Money.of(3), unfilled.get(10L));
+        assertEquals(Money.of(3), unfilled.get(11L));
+        assertTrue(matchingService.submit(order(13L, buyer, Side.BUY, "101", "1")).isEmpty());
+    }
+
+    @Test
+    void rebuildBooks_LoadsPendingOrders() {
+        Order sell = order(10L, seller, Side.SELL, "100", "5");
+        Order buy = order(11L, buyer, Side.BUY, "100", "5");
+        when(orderRepository.findByStatusOrderByCreateDateAscIdAsc(Status.PENDING)).thenReturn(List.of(sell));
+        when(orderRepository.findById(10L)).thenReturn(Optional.of(sell));
+        when(orderRepository.findById(11L)).thenReturn(Optional.of(buy));
+
+        matchingService.rebuildBooks();
+        List<Fill> fills = matchingService.submit(buy);
+
+        assertEquals(1, fills.size());
+        assertEquals(10L, fills.get(0).getSellOrderId());
+    }
+
+    @Test
+    void rebuildBooks_SkipsOrdersOutsideTheCatalog() {
+        Order delisted = order(10L, seller, Side.SELL, "100", "5");
+        delisted.setAssetName("DELISTED");
+        Order sell = order(11L, seller, Side.SELL, "100", "5");
+        when(orderRepository.findByStatusOrderByCreateDateAscIdAsc(Status.PENDING)).thenReturn(List.of(delisted, sell));
+
+        matchingService.rebuildBooks();
+
+        assertEquals(Map.of(11L, Money.of(5)), matchingService.cancel(List.of(sell)));
+    }
+
+    private static <T> T begin(Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        return work.get();
+    }
+
+    private static Void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        return null;
+    }
+
+    private Order order(Long id, Customer customer, Side side, String price, String size) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomer(customer);
+        order.setAssetName("AKBNK");
+        order.setSide(side);
+        order.setPrice(new BigDecimal(price));
+        order.setSize(new BigDecimal(size));
+        order.setFilledSize(BigDecimal.ZERO);
+        order.setStatus(Status.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,118 @@
+package com.tr.ing.brokerage.service;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.idempotency.ClientOrderCache;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import com.tr.ing.brokerage.repository.OrderRepository;
+import com.tr.ing.brokerage.sequencer.OrderSequencer;
+import com.tr.ing.brokerage.service.impl.OrderIntakeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class OrderIntakeServiceImplTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AtomicLong ids = new AtomicLong();
+
+    private OrderSequencer sequencer;
+    private OrderIntakeServiceImpl intakeService;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new OrderSequencer(new BrokerageMetrics(new SimpleMeterRegistry()), true, 2, 128, 1, false);
+        intakeService = new OrderIntakeServiceImpl(sequencer, orderService, orderRepository,
+                new ClientOrderCache(1000, Duration.ofMinutes(5)), 500);
+        when(orderService.createOrder(any(OrderDTO.class))).thenAnswer(invocation -> {
+            OrderDTO orderDTO = invocation.getArgument(0);
+            return OrderDTO.builder()
+                    .id(ids.incrementAndGet())
+                    .customerId(orderDTO.getCustomerId())
+                    .clientOrderId(orderDTO.getClientOrderId())
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.destroy();
+    }
+
+    @Test
+    void submitOrder_ConcurrentRetries_PlaceOrderOnce() throws Exception {
+        ExecutorService gateways = Executors.newFixedThreadPool(8);
+        List<Future<OrderDTO>> results = gateways.invokeAll(Collections.nCopies(20,
+                () -> intakeService.submitOrder(order("gw-1"))));
+        gateways.shutdown();
+
+        for (Future<OrderDTO> result : results) {
+            assertEquals(1L, result.get().getId());
+        }
+        verify(orderService, times(1)).createOrder(any(OrderDTO.class));
+    }
+
+    @Test
+    void submitOrder_WithoutClientOrderId_PlacesEveryOrder() {
+        intakeService.submitOrder(order(null));
+        intakeService.submitOrder(order(null));
+
+        verify(orderService, times(2)).createOrder(any(OrderDTO.class));
+    }
+
+    @Test
+    void cancelOrders_AssetWide_CancelsEachCustomerOnItsOwnShard() {
+        when(orderRepository.findCustomerIdsByStatusAndAsset(Status.PENDING, "AKBNK", Side.SELL)).thenReturn(List.of(1L, 2L));
+        Map<Long, String> threads = new ConcurrentHashMap<>();
+        when(orderService.cancelOrders(anyLong(), eq("AKBNK"), eq(Side.SELL))).thenAnswer(invocation -> {
+            threads.put(invocation.getArgument(0), Thread.currentThread().getName());
+            return invocation.<Long>getArgument(0).intValue() * 3;
+        });
+
+        assertEquals(9, intakeService.cancelOrders(null, "AKBNK", Side.SELL));
+        assertNotEquals(threads.get(1L), threads.get(2L));
+        verify(orderService, never()).cancelOrders(isNull(), any(), any());
+    }
+
+    @Test
+    void cancelOrders_AssetWide_RethrowsAfterEveryCustomerFinished() {
+        when(orderRepository.findCustomerIdsByStatusAndAsset(Status.PENDING, "AKBNK", null)).thenReturn(List.of(1L, 2L));
+        when(orderService.cancelOrders(1L, "AKBNK", null)).thenThrow(new IllegalStateException("boom"));
+        when(orderService.cancelOrders(2L, "AKBNK", null)).thenReturn(4);
+
+        assertThrows(IllegalStateException.class, () -> intakeService.cancelOrders(null, "AKBNK", null));
+        verify(orderService).cancelOrders(2L, "AKBNK", null);
+    }
+
+    private static OrderDTO order(String clientOrderId) {
+        return OrderDTO.builder()
+                .customerId(1L)
+                .clientOrderId(clientOrderId)
+                .assetName("AKBNK")
+                .side(Side.BUY)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -1,34 +1,60 @@
 package com.tr.ing.brokerage.service;
 
 import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.OrderPageDTO;
+import com.tr.ing.brokerage.dto.OrderResultDTO;
 import com.tr.ing.brokerage.entity.Customer;
 import com.tr.ing.brokerage.entity.Order;
 import com.tr.ing.brokerage.enums.Side;
 import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.enums.TradingStatus;
 import com.tr.ing.brokerage.exception.CustomerNotFoundException;
+import com.tr.ing.brokerage.exception.InstrumentNotTradableException;
+import com.tr.ing.brokerage.exception.InvalidClientOrderIdException;
+import com.tr.ing.brokerage.exception.InvalidOrderException;
+import com.tr.ing.brokerage.exception.InvalidOrderIncrementException;
+import com.tr.ing.brokerage.exception.InvalidCursorException;
 import com.tr.ing.brokerage.exception.OrderNotFoundException;
 import com.tr.ing.brokerage.exception.OrderNotPendingException;
 import com.tr.ing.brokerage.helper.AssetValidationHelper;
+import com.tr.ing.brokerage.instrument.Instrument;
+import com.tr.ing.brokerage.instrument.InstrumentCatalog;
+import com.tr.ing.brokerage.journal.JournalEvent;
+import com.tr.ing.brokerage.journal.JournalRecorder;
+import com.tr.ing.brokerage.matching.Fill;
+import com.tr.ing.brokerage.metrics.BrokerageMetrics;
+import com.tr.ing.brokerage.money.Money;
 import com.tr.ing.brokerage.repository.CustomerRepository;
+import com.tr.ing.brokerage.repository.OrderHistoryRepository;
 import com.tr.ing.brokerage.repository.OrderRepository;
 import com.tr.ing.brokerage.service.impl.OrderServiceImpl;
+import com.tr.ing.brokerage.stream.OrderStatusChangedEvent;
 import com.tr.ing.brokerage.util.BaseModelMapper;
+import com.tr.ing.brokerage.util.OrderCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,9 +69,29 @@ class OrderServiceImplTest {
     @Mock
     private AssetValidationHelper assetValidationHelper;
 
+    @Mock
+    private MatchingService matchingService;
+
+    @Mock
+    private JournalRecorder journalRecorder;
+
     @Mock
     private BaseModelMapper modelMapper;
 
+    @Mock
+    private OrderHistoryRepository orderHistoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BrokerageMetrics metrics = new BrokerageMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private InstrumentCatalog instrumentCatalog = new InstrumentCatalog(List.of(
+            new Instrument(1, "BTC", Money.of(new BigDecimal("0.01")), Money.of(new BigDecimal("0.0001")), TradingStatus.ACTIVE),
+            new Instrument(2, "LUNA", Money.of(new BigDecimal("0.01")), Money.of(1), TradingStatus.HALTED)));
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -86,7 +132,6 @@ class OrderServiceImplTest {
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
         doNothing().when(assetValidationHelper).processOrder(any(OrderDTO.class));
-        doNothing().when(assetValidationHelper).validateTryBalance(anyLong(), any(BigDecimal.class));
 
         OrderDTO result = orderService.createOrder(orderDTO);
 
@@ -95,6 +140,27 @@ class OrderServiceImplTest {
         verify(customerRepository, times(1)).findById(anyLong());
         verify(orderRepository, times(1)).save(any(Order.class));
         verify(assetValidationHelper, times(1)).processOrder(any(OrderDTO.class));
+        verify(matchingService, times(1)).submit(order);
+        verify(journalRecorder, times(1)).record(any(JournalEvent.class));
+    }
+
+    @Test
+    void createOrder_Matched_ReturnsFilledOrder() {
+        Order filled = new Order();
+        filled.setId(1L);
+        filled.setCustomer(customer);
+        filled.setStatus(Status.MATCHED);
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(customer));
+        when(modelMapper.convertToEntity(any(OrderDTO.class), eq(Order.class))).thenReturn(order);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(matchingService.submit(order)).thenReturn(List.of(mock(Fill.class)));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(filled));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class)))
+                .thenAnswer(invocation -> OrderDTO.builder().status(invocation.<Order>getArgument(0).getStatus()).build());
+
+        OrderDTO result = orderService.createOrder(orderDTO);
+
+        assertEquals(Status.MATCHED, result.getStatus());
     }
 
     @Test
@@ -117,13 +183,161 @@ class OrderServiceImplTest {
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
         doNothing().when(assetValidationHelper).processOrder(any(OrderDTO.class));
-        doNothing().when(assetValidationHelper).validateAssetBalance(anyLong(), anyString(), any(BigDecimal.class));
 
         OrderDTO result = orderService.createOrder(orderDTO);
 
         assertNotNull(result);
         assertEquals(Side.SELL, result.getSide());
-        verify(assetValidationHelper, times(1)).validateAssetBalance(anyLong(), anyString(), any(BigDecimal.class));
+        verify(assetValidationHelper, times(1)).processOrder(any(OrderDTO.class));
+        verify(assetValidationHelper, never()).validateAssetBalance(anyLong(), anyString(), any(BigDecimal.class));
+    }
+
+    @Test
+    void createOrder_HaltedAsset_RejectedBeforeAnyLookup() {
+        orderDTO.setAssetName("LUNA");
+
+        assertThrows(InstrumentNotTradableException.class, () -> orderService.createOrder(orderDTO));
+        verifyNoInteractions(customerRepository, orderRepository, assetValidationHelper, matchingService);
+    }
+
+    @Test
+    void createOrder_NonPositiveSizeOrPrice_Rejected() {
+        orderDTO.setSize(new BigDecimal("-5"));
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderDTO));
+
+        orderDTO.setSize(BigDecimal.ONE);
+        orderDTO.setPrice(BigDecimal.ZERO);
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderDTO));
+
+        orderDTO.setPrice(null);
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderDTO));
+        verifyNoInteractions(customerRepository, orderRepository, assetValidationHelper);
+    }
+
+    @Test
+    void createOrder_ValueAtMoneyRange_AcceptedAndBeyondRejected() {
+        orderDTO.setPrice(new BigDecimal("50000"));
+        orderDTO.setSize(new BigDecimal("18446744073.7096"));
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderDTO));
+
+        orderDTO.setSize(new BigDecimal("18446744073.7095"));
+        assertThrows(CustomerNotFoundException.class, () -> orderService.createOrder(orderDTO));
+
+        orderDTO.setSize(BigDecimal.ONE);
+        orderDTO.setPrice(Money.MAX.toBigDecimal().add(new BigDecimal("0.0001")));
+        assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderDTO));
+    }
+
+    @Test
+    void createOrder_OffTickPrice_Rejected() {
+        orderDTO.setPrice(new BigDecimal("50000.005"));
+
+        assertThrows(InvalidOrderIncrementException.class, () -> orderService.createOrder(orderDTO));
+        verifyNoInteractions(customerRepository, orderRepository);
+    }
+
+    @Test
+    void createOrder_UsesCatalogSymbolInstance() {
+        orderDTO.setAssetName(new String("BTC"));
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(customer));
+        when(modelMapper.convertToEntity(any(OrderDTO.class), eq(Order.class))).thenReturn(order);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        orderService.createOrder(orderDTO);
+
+        assertSame(instrumentCatalog.get(1).symbol(), orderDTO.getAssetName());
+    }
+
+    @Test
+    void createOrders_UnknownAssetAndOffLotSize_RejectedPerOrder() {
+        OrderDTO unknown = OrderDTO.builder().customerId(1L).assetName("DOGE").side(Side.BUY)
+                .size(BigDecimal.ONE).price(BigDecimal.TEN).build();
+        OrderDTO offLot = OrderDTO.builder().customerId(1L).assetName("BTC").side(Side.BUY)
+                .size(new BigDecimal("0.00005")).price(BigDecimal.TEN).build();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        List<OrderResultDTO> results = orderService.createOrders(1L, List.of(orderDTO, unknown, offLot));
+
+        assertTrue(results.get(0).isAccepted());
+        assertEquals("Unknown asset: DOGE", results.get(1).getMessage());
+        assertFalse(results.get(2).isAccepted());
+        verify(assetValidationHelper, times(1)).reserveOrders(1L, List.of(orderDTO));
+    }
+
+    @Test
+    void createOrder_KnownClientOrderId_ReturnsExistingOrder() {
+        orderDTO.setClientOrderId("gw-1");
+        when(orderRepository.findByCustomerIdAndClientOrderId(1L, "gw-1")).thenReturn(Optional.of(order));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        OrderDTO result = orderService.createOrder(orderDTO);
+
+        assertEquals(order.getId(), result.getId());
+        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(assetValidationHelper, matchingService, journalRecorder);
+    }
+
+    @Test
+    void createOrder_BlankClientOrderId_Rejected() {
+        orderDTO.setClientOrderId(" ");
+
+        assertThrows(InvalidClientOrderIdException.class, () -> orderService.createOrder(orderDTO));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void createOrders_KnownClientOrderIds_ReplayedAndDuplicatesRejected() {
+        order.setClientOrderId("gw-1");
+        orderDTO.setClientOrderId("gw-1");
+        OrderDTO fresh = OrderDTO.builder().customerId(1L).clientOrderId("gw-2").assetName("BTC").side(Side.BUY)
+                .size(BigDecimal.ONE).price(BigDecimal.TEN).build();
+        OrderDTO duplicate = OrderDTO.builder().customerId(1L).clientOrderId("gw-2").assetName("BTC").side(Side.BUY)
+                .size(BigDecimal.ONE).price(BigDecimal.TEN).build();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(orderRepository.findByCustomerIdAndClientOrderIdIn(eq(1L), anyCollection())).thenReturn(List.of(order));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        List<OrderResultDTO> results = orderService.createOrders(1L, List.of(orderDTO, fresh, duplicate));
+
+        assertTrue(results.get(0).isAccepted());
+        assertTrue(results.get(1).isAccepted());
+        assertEquals("Duplicate client order id in basket: gw-2", results.get(2).getMessage());
+        verify(assetValidationHelper, times(1)).reserveOrders(1L, List.of(fresh));
+        verify(matchingService, times(1)).submit(any(Order.class));
+    }
+
+    @Test
+    void createOrders_ReservesOnceAndReportsPerOrder() {
+        OrderDTO invalid = OrderDTO.builder().customerId(1L).assetName("BTC").side(Side.BUY).build();
+        OrderDTO unaffordable = OrderDTO.builder().customerId(1L).assetName("BTC").side(Side.BUY)
+                .size(BigDecimal.TEN).price(BigDecimal.valueOf(90000)).build();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(assetValidationHelper.reserveOrders(eq(1L), anyList()))
+                .thenReturn(Map.of(unaffordable, "Insufficient TRY balance"));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        List<OrderResultDTO> results = orderService.createOrders(1L, List.of(orderDTO, invalid, unaffordable));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isAccepted());
+        assertFalse(results.get(1).isAccepted());
+        assertEquals("Insufficient TRY balance", results.get(2).getMessage());
+        verify(assetValidationHelper, times(1)).reserveOrders(1L, List.of(orderDTO, unaffordable));
+        verify(assetValidationHelper, never()).processOrder(any(OrderDTO.class));
+        verify(orderRepository, times(1)).saveAll(anyCollection());
+        verify(matchingService, times(1)).submit(any(Order.class));
+        verify(journalRecorder, times(1)).record(any(JournalEvent.class));
+    }
+
+    @Test
+    void createOrders_CustomerNotFound() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(CustomerNotFoundException.class, () ->
+                orderService.createOrders(1L, List.of(orderDTO)));
+        verify(orderRepository, never()).saveAll(anyCollection());
     }
 
     @Test
@@ -168,6 +382,45 @@ class OrderServiceImplTest {
                 .findByCustomerIdAndCreateDateBetween(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
+    @Test
+    void getOrderPage_ReturnsCursorWhenMoreRemain() {
+        Order older = new Order();
+        older.setId(2L);
+        older.setCustomer(customer);
+        older.setCreateDate(order.getCreateDate().minusMinutes(1));
+        when(orderRepository.findHistoryPage(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(order, older));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        OrderPageDTO page = orderService.getOrderPage(1L, null, null, null, 1);
+
+        assertEquals(1, page.getOrders().size());
+        assertEquals(OrderCursor.after(order), OrderCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getOrderPage_SeeksPastCursorOnLastPage() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now();
+        OrderCursor cursor = new OrderCursor(end, 5L);
+        when(orderRepository.findHistoryPageAfter(1L, start, end, end, 5L, Limit.of(11)))
+                .thenReturn(List.of(order));
+        when(modelMapper.convertToDto(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+
+        OrderPageDTO page = orderService.getOrderPage(1L, start, end, cursor.encode(), 10);
+
+        assertEquals(1, page.getOrders().size());
+        assertNull(page.getNextCursor());
+        verify(orderRepository, never()).findHistoryPage(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getOrderPage_InvalidCursor() {
+        assertThrows(InvalidCursorException.class, () ->
+                orderService.getOrderPage(1L, null, null, "not-a-cursor", 10));
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     void cancelOrder_Success() {
         when(orderRepository.findById(anyLong())).thenReturn(Optional.of(order));
@@ -180,6 +433,9 @@ class OrderServiceImplTest {
         verify(orderRepository, times(1)).findById(anyLong());
         verify(orderRepository, times(1)).save(any(Order.class));
         verify(assetValidationHelper, times(1)).restoreOrderAssets(any(OrderDTO.class));
+        verify(matchingService, times(1)).cancel(order);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OrderStatusChangedEvent changed
+                && changed.order().getStatus() == Status.CANCELED));
     }
 
     @Test
@@ -201,5 +457,44 @@ class OrderServiceImplTest {
                 orderService.cancelOrder(1L));
         verify(orderRepository, times(1)).findById(anyLong());
         verify(orderRepository, never()).save(any(Order.class));
+        verify(matchingService, never()).cancel(any(Order.class));
+    }
+
+    @Test
+    void cancelOrders_OneUpdateAndAggregatedRelease() {
+        Order second = new Order();
+        second.setId(2L);
+        second.setCustomer(customer);
+        second.setAssetName("BTC");
+        second.setSide(Side.BUY);
+        second.setSize(BigDecimal.ONE);
+        second.setPrice(BigDecimal.valueOf(49000));
+        second.setStatus(Status.PENDING);
+        List<Order> pending = List.of(order, second);
+        Map<Long, Money> unfilled = Map.of(1L, Money.of(1), 2L, Money.of(1));
+        when(orderRepository.findByStatusAndFilters(Status.PENDING, 1L, null, null)).thenReturn(pending);
+        when(matchingService.cancel(pending)).thenReturn(unfilled);
+        when(orderRepository.updateStatus(eq(List.of(1L, 2L)), eq(Status.PENDING), eq(Status.CANCELED), any()))
+                .thenReturn(2);
+
+        assertEquals(2, orderService.cancelOrders(1L, null, null));
+        assertEquals(Status.CANCELED, order.getStatus());
+        assertEquals(Status.CANCELED, second.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(assetValidationHelper, times(1)).restoreOrderAssets(pending, unfilled);
+        verify(journalRecorder, times(2)).record(any(JournalEvent.class));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void cancelOrders_OrderChangedConcurrently_ReleasesNothing() {
+        when(orderRepository.findByStatusAndFilters(Status.PENDING, null, "BTC", Side.BUY)).thenReturn(List.of(order));
+        when(matchingService.cancel(List.of(order))).thenReturn(Map.of(1L, Money.of(1)));
+        when(orderRepository.updateStatus(eq(List.of(1L)), eq(Status.PENDING), eq(Status.CANCELED), any()))
+                .thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.cancelOrders(null, "BTC", Side.BUY));
+        verify(assetValidationHelper, never()).restoreOrderAssets(anyList(), anyMap());
+        verify(journalRecorder, never()).record(any(JournalEvent.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package com.tr.ing.brokerage.stream;
+
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.dto.PortfolioAssetDTO;
+import com.tr.ing.brokerage.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamSubscriptionTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+
+    private RecordingEmitter emitter;
+    private StreamSubscription subscription;
+
+    @BeforeEach
+    void setUp() {
+        emitter = new RecordingEmitter();
+        subscription = new StreamSubscription(1L, emitter, executor, 2);
+    }
+
+    @Test
+    void balanceUpdates_AreCoalescedPerAsset() {
+        subscription.offerBalance(balance("TRY", "100"));
+        subscription.offerBalance(balance("AKBNK", "5"));
+        subscription.offerBalance(balance("TRY", "90"));
+        subscription.offerBalance(balance("TRY", "80"));
+
+        runTasks();
+
+        assertEquals(2, emitter.sent.size());
+        assertEquals("TRY", ((PortfolioAssetDTO) emitter.sent.get(0)).getAssetName());
+        assertEquals(new BigDecimal("80"), ((PortfolioAssetDTO) emitter.sent.get(0)).getSize());
+        assertEquals("AKBNK", ((PortfolioAssetDTO) emitter.sent.get(1)).getAssetName());
+    }
+
+    @Test
+    void portfolio_DoesNotOverwriteNewerUpdates() {
+        subscription.offerBalance(balance("TRY", "90"));
+        subscription.offerPortfolio(List.of(balance("TRY", "100"), balance("AKBNK", "5")));
+
+        runTasks();
+
+        assertEquals(new BigDecimal("90"), ((PortfolioAssetDTO) emitter.sent.get(0)).getSize());
+        assertEquals(2, emitter.sent.size());
+    }
+
+    @Test
+    void orderEvents_AreSentInOrderWithOneDrainTask() {
+        subscription.offerOrder(order(1L, Status.PENDING));
+        subscription.offerOrder(order(1L, Status.MATCHED));
+
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        assertEquals(List.of(Status.PENDING, Status.MATCHED),
+                emitter.sent.stream().map(data -> ((OrderDTO) data).getStatus()).toList());
+    }
+
+    @Test
+    void slowConsumer_IsClosedWhenOrderBufferOverflows() {
+        subscription.offerOrder(order(1L, Status.PENDING));
+        subscription.offerOrder(order(2L, Status.PENDING));
+        subscription.offerOrder(order(3L, Status.PENDING));
+
+        assertTrue(subscription.isClosed());
+        runTasks();
+
+        assertTrue(emitter.completed);
+        assertTrue(emitter.sent.isEmpty());
+
+        subscription.offerBalance(balance("TRY", "100"));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void failedSend_ClosesSubscription() {
+        emitter.failing = true;
+        subscription.offerOrder(order(1L, Status.PENDING));
+
+        runTasks();
+
+        assertTrue(subscription.isClosed());
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static PortfolioAssetDTO balance(String assetName, String size) {
+        return PortfolioAssetDTO.builder()
+                .assetName(assetName)
+                .size(new BigDecimal(size))
+                .usableSize(new BigDecimal(size))
+                .reservedSize(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static OrderDTO order(Long id, Status status) {
+        return OrderDTO.builder().id(id).customerId(1L).assetName("AKBNK").status(status).build();
+    }
+
+    /**
+     * Records the payload of each event, skipping the field lines, instead of writing a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> sent = new ArrayList<>();
+        private boolean completed;
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws java.io.IOException {
+            if (failing) {
+                throw new java.io.IOException("Broken pipe");
+            }
+            for (DataWithMediaType data : builder.build()) {
+                if (!(data.getData() instanceof String)) {
+                    sent.add(data.getData());
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tr.ing.brokerage.util;
+
+import com.tr.ing.brokerage.dto.AssetDTO;
+import com.tr.ing.brokerage.dto.CustomerDTO;
+import com.tr.ing.brokerage.dto.OrderDTO;
+import com.tr.ing.brokerage.entity.Asset;
+import com.tr.ing.brokerage.entity.Customer;
+import com.tr.ing.brokerage.entity.Order;
+import com.tr.ing.brokerage.enums.Side;
+import com.tr.ing.brokerage.enums.Status;
+import com.tr.ing.brokerage.mapper.AssetMapperImpl;
+import com.tr.ing.brokerage.mapper.CustomerMapperImpl;
+import com.tr.ing.brokerage.mapper.OrderMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitConfig({BaseModelMapper.class, OrderMapperImpl.class, AssetMapperImpl.class, CustomerMapperImpl.class})
+class BaseModelMapperTest {
+
+    @Autowired
+    private BaseModelMapper modelMapper;
+
+    private Customer customer;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setId(7L);
+        customer.setCustomerId("CUST007");
+        customer.setName("Jane");
+
+        order = Order.builder()
+                .customer(customer)
+                .assetName("AKBNK")
+                .side(Side.SELL)
+                .size(BigDecimal.TEN)
+                .price(BigDecimal.valueOf(42))
+                .filledSize(BigDecimal.ONE)
+                .status(Status.PENDING)
+                .createDate(LocalDateTime.now())
+                .build();
+        order.setId(11L);
+    }
+
+    @Test
+    void convertToDto_Order() {
+        OrderDTO dto = modelMapper.convertToDto(order, OrderDTO.class);
+
+        assertEquals(11L, dto.getId());
+        assertEquals(7L, dto.getCustomerId());
+        assertEquals("AKBNK", dto.getAssetName());
+        assertEquals(Side.SELL, dto.getSide());
+        assertEquals(BigDecimal.ONE, dto.getFilledSize());
+        assertEquals(order.getCreateDate(), dto.getCreateDate());
+    }
+
+    @Test
+    void convertToEntity_OrderLeavesCustomerToCaller() {
+        OrderDTO dto = OrderDTO.builder().id(3L).customerId(7L).assetName("AKBNK").side(Side.BUY)
+                .size(BigDecimal.ONE).price(BigDecimal.TEN).build();
+
+        Order entity = modelMapper.convertToEntity(dto, Order.class);
+
+        assertEquals(3L, entity.getId());
+        assertNull(entity.getCustomer());
+        assertEquals(BigDecimal.TEN, entity.getPrice());
+    }
+
+    @Test
+    void convertToDto_CustomerWithAssets() {
+        Asset asset = Asset.builder().customer(customer).assetName("TRY")
+                .size(BigDecimal.TEN).usableSize(BigDecimal.ONE).build();
+        customer.setAssets(List.of(asset));
+
+        CustomerDTO dto = modelMapper.convertToDto(customer, CustomerDTO.class);
+
+        assertEquals("CUST007", dto.getCustomerId());
+        assertEquals(1, dto.getAssets().size());
+        AssetDTO assetDTO = dto.getAssets().get(0);
+        assertEquals(7L, assetDTO.getCustomerId());
+        assertEquals(BigDecimal.ONE, assetDTO.getUsableSize());
+    }
+
+    @Test
+    void convertToDto_ResolvesEntitySubclass() {
+        Order proxyLike = new Order() {
+        };
+        proxyLike.setId(5L);
+        proxyLike.setCustomer(customer);
+
+        assertEquals(5L, modelMapper.convertToDto(proxyLike, OrderDTO.class).getId());
+    }
+
+    @Test
+    void mapDtoToEntity_UpdatesCustomer() {
+        CustomerDTO dto = CustomerDTO.builder().customerId("CUST007").name("Janet").isDeleted(true).build();
+
+        modelMapper.mapDtoToEntity(dto, customer);
+
+        assertEquals(7L, customer.getId());
+        assertEquals("Janet", customer.getName());
+        assertTrue(customer.getIsDeleted());
+    }
+
+    @Test
+    void convertToDto_UnsupportedPair() {
+        assertThrows(IllegalArgumentException.class, () -> modelMapper.convertToDto(order, AssetDTO.class));
+    }
+}
@@ -0,0 +1,113 @@
+package com.tr.ing.brokerage.util;
+
+import com.tr.ing.brokerage.entity.Role;
+import com.tr.ing.brokerage.entity.User;
+import com.tr.ing.brokerage.enums.RoleUser;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String OLD_KEY = "2024:" + newSecret();
+    private static final String NEW_KEY = "2025:" + newSecret();
+
+    private Authentication login;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .username("admin")
+                .roles(Set.of(Role.builder().roleUser(RoleUser.ROLE_ADMIN).build()))
+                .build();
+        login = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void authenticate_ValidTokenRepeatedly() {
+        JwtTokenProvider provider = provider(List.of(), "");
+        String token = provider.generateToken(login);
+
+        Optional<Authentication> first = provider.authenticate(token);
+        Optional<Authentication> second = provider.authenticate(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("admin", second.orElseThrow().getName());
+        assertEquals("ROLE_ADMIN", second.get().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+        assertNotSame(first.get(), second.get());
+    }
+
+    @Test
+    void authenticate_RejectsTamperedAndForeignTokens() {
+        JwtTokenProvider provider = provider(List.of(), "");
+        String token = provider.generateToken(login);
+        String foreign = provider(List.of(), "").generateToken(login);
+
+        assertTrue(provider.authenticate(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(provider.authenticate(foreign).isEmpty());
+        assertTrue(provider.authenticate("").isEmpty());
+        assertFalse(provider.validateToken("not-a-jwt"));
+        assertThrows(JwtException.class, () -> provider.getAuthentication(foreign));
+    }
+
+    @Test
+    void authenticate_CachedTokenExpiresWithExpClaim() throws InterruptedException {
+        JwtTokenProvider provider = new JwtTokenProvider(List.of(), "", 2_000, 100, Duration.ofMinutes(5));
+        String token = provider.generateToken(login);
+        assertTrue(provider.authenticate(token).isPresent());
+
+        Thread.sleep(2_100);
+
+        assertTrue(provider.authenticate(token).isEmpty());
+    }
+
+    @Test
+    void authenticate_NodesSharingKeysAcceptEachOthersTokens() {
+        String token = provider(List.of(NEW_KEY), "2025").generateToken(login);
+
+        assertTrue(provider(List.of(NEW_KEY), "2025").authenticate(token).isPresent());
+    }
+
+    @Test
+    void authenticate_DuringRotationOldAndNewKeysVerify() {
+        String oldToken = provider(List.of(OLD_KEY), "2024").generateToken(login);
+        JwtTokenProvider rotating = provider(List.of(OLD_KEY, NEW_KEY), "2025");
+        String newToken = rotating.generateToken(login);
+
+        assertTrue(rotating.authenticate(oldToken).isPresent());
+        assertTrue(rotating.authenticate(newToken).isPresent());
+        assertTrue(provider(List.of(NEW_KEY), "2025").authenticate(oldToken).isEmpty());
+        assertTrue(provider(List.of(OLD_KEY), "2024").authenticate(newToken).isEmpty());
+    }
+
+    @Test
+    void constructor_RejectsMisconfiguredKeys() {
+        assertThrows(IllegalArgumentException.class, () -> provider(List.of(OLD_KEY), "2025"));
+        assertThrows(IllegalArgumentException.class, () -> provider(List.of(OLD_KEY, OLD_KEY), "2024"));
+        assertThrows(IllegalArgumentException.class, () -> provider(List.of("no-separator"), "2024"));
+        assertThrows(WeakKeyException.class, () -> provider(List.of("short:" + Base64.getEncoder().encodeToString(new byte[16])), "short"));
+    }
+
+    private static JwtTokenProvider provider(List<String> keys, String signingKeyId) {
+        return new JwtTokenProvider(keys, signingKeyId, 60_000, 100, Duration.ofMinutes(5));
+    }
+
+    private static String newSecret() {
+        return Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+    }
+}